@@ -0,0 +1,156 @@
+/**
+ * Copyright 2016-2021 The Reaktivity Project
+ *
+ * The Reaktivity Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.reaktivity.specification.ws.internal;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.nio.ByteBuffer;
+
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.kaazing.k3po.lang.el.BytesMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.reaktivity.nukleus.specification.ws.internal.types.stream.WsBeginExFW;
+import org.reaktivity.nukleus.specification.ws.internal.types.stream.WsDataExFW;
+import org.reaktivity.nukleus.specification.ws.internal.types.stream.WsEndExFW;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Fork(3)
+@Warmup(iterations = 5, time = 1, timeUnit = SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = SECONDS)
+@OutputTimeUnit(SECONDS)
+public class WsExtensionBenchmark
+{
+    private final WsBeginExFW beginExRO = new WsBeginExFW();
+    private final WsDataExFW dataExRO = new WsDataExFW();
+    private final WsEndExFW endExRO = new WsEndExFW();
+
+    private DirectBuffer beginEx;
+    private DirectBuffer dataEx;
+    private DirectBuffer endEx;
+    private byte[] beginExBytes;
+    private BytesMatcher beginExMatcher;
+
+    @Setup
+    public void init()
+    {
+        beginExBytes = encodeBeginEx();
+        beginEx = new UnsafeBuffer(beginExBytes);
+        dataEx = new UnsafeBuffer(encodeDataEx());
+        endEx = new UnsafeBuffer(encodeEndEx());
+        beginExMatcher = WsFunctions.matchBeginEx()
+                                    .typeId(0x01)
+                                    .protocol("primary")
+                                    .scheme("http")
+                                    .authority("localhost:8080")
+                                    .path("/echo")
+                                    .build();
+    }
+
+    @Benchmark
+    public byte[] encodeBeginEx()
+    {
+        return WsFunctions.beginEx()
+                          .typeId(0x01)
+                          .protocol("primary")
+                          .scheme("http")
+                          .authority("localhost:8080")
+                          .path("/echo")
+                          .build();
+    }
+
+    @Benchmark
+    public void decodeBeginEx(
+        Blackhole blackhole)
+    {
+        final WsBeginExFW wsBeginEx = beginExRO.wrap(beginEx, 0, beginEx.capacity());
+        blackhole.consume(wsBeginEx.typeId());
+        blackhole.consume(wsBeginEx.protocol().length());
+        blackhole.consume(wsBeginEx.scheme().length());
+        blackhole.consume(wsBeginEx.authority().length());
+        blackhole.consume(wsBeginEx.path().length());
+    }
+
+    @Benchmark
+    public Object matchBeginEx() throws Exception
+    {
+        return beginExMatcher.match(ByteBuffer.wrap(beginExBytes));
+    }
+
+    @Benchmark
+    public byte[] encodeDataEx()
+    {
+        return WsFunctions.dataEx()
+                          .typeId(0x01)
+                          .opcode("text")
+                          .build();
+    }
+
+    @Benchmark
+    public void decodeDataEx(
+        Blackhole blackhole)
+    {
+        final WsDataExFW wsDataEx = dataExRO.wrap(dataEx, 0, dataEx.capacity());
+        blackhole.consume(wsDataEx.typeId());
+        blackhole.consume(wsDataEx.flags());
+        blackhole.consume(wsDataEx.info().sizeof());
+    }
+
+    @Benchmark
+    public byte[] encodeEndEx()
+    {
+        return WsFunctions.endEx()
+                          .typeId(0x01)
+                          .code(1000)
+                          .reason("normal closure")
+                          .build();
+    }
+
+    @Benchmark
+    public void decodeEndEx(
+        Blackhole blackhole)
+    {
+        final WsEndExFW wsEndEx = endExRO.wrap(endEx, 0, endEx.capacity());
+        blackhole.consume(wsEndEx.typeId());
+        blackhole.consume(wsEndEx.code());
+        blackhole.consume(wsEndEx.reason().length());
+    }
+
+    public static void main(
+        String[] args) throws RunnerException
+    {
+        Options opt = new OptionsBuilder()
+                .include(WsExtensionBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,87 @@
+/**
+ * Copyright 2016-2021 The Reaktivity Project
+ *
+ * The Reaktivity Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.reaktivity.specification.ws.internal;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Fork(3)
+@Warmup(iterations = 5, time = 1, timeUnit = SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = SECONDS)
+@OutputTimeUnit(SECONDS)
+public class WsMaskBenchmark
+{
+    @Param({ "125", "65536", "1048576" })
+    private int length;
+
+    private byte[] payload;
+    private byte[] maskingKey;
+
+    @Setup
+    public void init()
+    {
+        payload = new byte[length];
+        maskingKey = new byte[4];
+        ThreadLocalRandom.current().nextBytes(payload);
+        ThreadLocalRandom.current().nextBytes(maskingKey);
+    }
+
+    @Benchmark
+    public byte[] mask()
+    {
+        return WsFunctions.mask(payload, maskingKey);
+    }
+
+    @Benchmark
+    public byte[] maskBytewise()
+    {
+        final byte[] masked = payload.clone();
+        for (int index = 0; index < masked.length; index++)
+        {
+            masked[index] ^= maskingKey[index & 0x03];
+        }
+        return masked;
+    }
+
+    public static void main(
+        String[] args) throws RunnerException
+    {
+        Options opt = new OptionsBuilder()
+                .include(WsMaskBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,251 @@
+/**
+ * Copyright 2016-2021 The Reaktivity Project
+ *
+ * The Reaktivity Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.reaktivity.specification.nukleus.ws.streams;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.agrona.collections.LongArrayList;
+import org.junit.ClassRule;
+import org.junit.rules.TestRule;
+import org.junit.runner.Description;
+import org.junit.runners.BlockJUnit4ClassRunner;
+import org.junit.runners.model.FrameworkMethod;
+import org.junit.runners.model.InitializationError;
+import org.junit.runners.model.Statement;
+import org.kaazing.k3po.junit.rules.K3poRule;
+
+/**
+ * Records how long each test takes from releasing its prepared scripts until the {@code CONNECTED} barrier,
+ * and how much heap each connection retains at that point, then writes latency percentiles and the median
+ * heap per connection for each test under the report directory once the class completes.
+ * <p>
+ * Use as a {@code @ClassRule}, chain {@link #perTest()} inside the {@code K3poRule}, call
+ * {@link #awaitConnected(K3poRule)} from the test in place of starting the scripts, and run the class
+ * with {@link Repeated} so that each test contributes one sample per repetition.
+ * <p>
+ * Nukleus implementations pair a client or server script with the nukleus under test, so the samples
+ * measure the nukleus rather than a peer script. Heap is sampled in the JVM running the test, which hosts
+ * the nukleus under test but not the k3po driver.
+ */
+public final class LatencyRule implements TestRule
+{
+    private static final String CONNECTED = "CONNECTED";
+
+    private static final int DEFAULT_REPETITIONS = 10;
+
+    private final Path directory;
+    private final int repetitions;
+    private final Map<String, LongArrayList> latencies;
+    private final Map<String, LongArrayList> footprints;
+    private final LongArrayList samples;
+    private final LongArrayList footprintSamples;
+
+    public LatencyRule()
+    {
+        this(DEFAULT_REPETITIONS);
+    }
+
+    public LatencyRule(
+        int repetitions)
+    {
+        this("target/latency", repetitions);
+    }
+
+    public LatencyRule(
+        String directory,
+        int repetitions)
+    {
+        if (repetitions < 1)
+        {
+            throw new IllegalArgumentException("repetitions must be positive");
+        }
+
+        this.directory = Paths.get(directory);
+        this.repetitions = repetitions;
+        this.latencies = new TreeMap<>();
+        this.footprints = new TreeMap<>();
+        this.samples = new LongArrayList();
+        this.footprintSamples = new LongArrayList();
+    }
+
+    public TestRule perTest()
+    {
+        return this::applyPerTest;
+    }
+
+    public void awaitConnected(
+        K3poRule k3po) throws Exception
+    {
+        awaitConnected(k3po, 1);
+    }
+
+    public void awaitConnected(
+        K3poRule k3po,
+        int connections) throws Exception
+    {
+        final long heapBefore = usedHeap();
+        k3po.start();
+        final long startAt = System.nanoTime();
+        k3po.awaitBarrier(CONNECTED);
+        final long latency = System.nanoTime() - startAt;
+        final long heapAfter = usedHeap();
+        record(latency, Math.max(heapAfter - heapBefore, 0L) / connections);
+    }
+
+    @Override
+    public Statement apply(
+        Statement base,
+        Description description)
+    {
+        return new Statement()
+        {
+            @Override
+            public void evaluate() throws Throwable
+            {
+                try
+                {
+                    base.evaluate();
+                }
+                finally
+                {
+                    report(description.getClassName());
+                }
+            }
+        };
+    }
+
+    private Statement applyPerTest(
+        Statement base,
+        Description description)
+    {
+        return new Statement()
+        {
+            @Override
+            public void evaluate() throws Throwable
+            {
+                clear();
+                base.evaluate();
+                record(description.getMethodName());
+            }
+        };
+    }
+
+    private synchronized void clear()
+    {
+        samples.clear();
+        footprintSamples.clear();
+    }
+
+    private synchronized void record(
+        long latency,
+        long footprint)
+    {
+        samples.addLong(latency);
+        footprintSamples.addLong(footprint);
+    }
+
+    private synchronized void record(
+        String test)
+    {
+        if (!samples.isEmpty())
+        {
+            latencies.computeIfAbsent(test, t -> new LongArrayList()).addAll(samples);
+            footprints.computeIfAbsent(test, t -> new LongArrayList()).addAll(footprintSamples);
+        }
+    }
+
+    private synchronized void report(
+        String className) throws Exception
+    {
+        if (!latencies.isEmpty())
+        {
+            final StringBuilder tests =
+                new StringBuilder("test,samples,p50Nanos,p90Nanos,p99Nanos,maxNanos,p50HeapBytesPerConnection\n");
+            latencies.forEach((test, samples) ->
+            {
+                final long[] sorted = samples.toLongArray();
+                Arrays.sort(sorted);
+                final long[] heap = footprints.get(test).toLongArray();
+                Arrays.sort(heap);
+                tests.append(String.format("%s,%d,%d,%d,%d,%d,%d%n", test, sorted.length, percentile(sorted, 50),
+                    percentile(sorted, 90), percentile(sorted, 99), sorted[sorted.length - 1], percentile(heap, 50)));
+            });
+
+            Files.createDirectories(directory);
+            Files.write(directory.resolve(className + ".csv"), tests.toString().getBytes(UTF_8));
+            latencies.clear();
+            footprints.clear();
+        }
+    }
+
+    private static long usedHeap()
+    {
+        final Runtime runtime = Runtime.getRuntime();
+        runtime.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long percentile(
+        long[] sorted,
+        int percentile)
+    {
+        final int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+
+    /**
+     * Runs each test as many times as the class {@code LatencyRule} asks for, with a new test instance
+     * and new rules for every repetition, since a {@code K3poRule} runs its scripts only once.
+     */
+    public static final class Repeated extends BlockJUnit4ClassRunner
+    {
+        private final int repetitions;
+
+        public Repeated(
+            Class<?> testClass) throws InitializationError
+        {
+            super(testClass);
+            this.repetitions = getTestClass().getAnnotatedFieldValues(null, ClassRule.class, LatencyRule.class).stream()
+                .mapToInt(rule -> rule.repetitions)
+                .max()
+                .orElse(1);
+        }
+
+        @Override
+        protected Statement methodBlock(
+            FrameworkMethod method)
+        {
+            return new Statement()
+            {
+                @Override
+                public void evaluate() throws Throwable
+                {
+                    for (int repetition = 0; repetition < repetitions; repetition++)
+                    {
+                        Repeated.super.methodBlock(method).evaluate();
+                    }
+                }
+            };
+        }
+    }
+}
@@ -17,40 +17,125 @@ package org.reaktivity.specification.ws.internal;
 
 import static java.nio.charset.StandardCharsets.US_ASCII;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64.Encoder;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Random;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
+import org.agrona.DirectBuffer;
+import org.agrona.ExpandableArrayBuffer;
 import org.agrona.MutableDirectBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
+import org.kaazing.k3po.lang.el.BytesMatcher;
 import org.kaazing.k3po.lang.el.Function;
 import org.kaazing.k3po.lang.el.spi.FunctionMapperSpi;
+import org.reaktivity.nukleus.specification.ws.internal.types.Array32FW;
+import org.reaktivity.nukleus.specification.ws.internal.types.String8FW;
+import org.reaktivity.nukleus.specification.ws.internal.types.WsExtensionFW;
 import org.reaktivity.nukleus.specification.ws.internal.types.stream.WsBeginExFW;
+import org.reaktivity.nukleus.specification.ws.internal.types.stream.WsDataExFW;
+import org.reaktivity.nukleus.specification.ws.internal.types.stream.WsEndExFW;
 
 public final class WsFunctions
 {
     private static final Encoder BASE64_ENCODER = java.util.Base64.getEncoder();
     private static final int MAX_BUFFER_SIZE = 1024 * 8;
+    private static final int MAX_STRING8_SIZE = 0xff;
+
+    private static final int FLAG_FIN = 0x80;
+    private static final int MASK_RSV = 0x70;
+    private static final int MASK_OPCODE = 0x0f;
+    private static final int FLAG_MASK = 0x80;
+    private static final int MASKING_KEY_SIZE = 4;
+    private static final int MAX_LENGTH_7 = 125;
+    private static final int MAX_LENGTH_16 = 0xffff;
+    private static final int LENGTH_16 = 126;
+    private static final int LENGTH_64 = 127;
+    private static final int MASK_LENGTH = 0x7f;
+    private static final int DEFLATE_TAIL_SIZE = 4;
+    private static final int FLAG_SERVER_NO_CONTEXT_TAKEOVER = 0x01;
+    private static final int FLAG_CLIENT_NO_CONTEXT_TAKEOVER = 0x02;
+    private static final int DEFAULT_MAX_WINDOW_BITS = 15;
+
+    private static final String PERMESSAGE_DEFLATE = "permessage-deflate";
+    private static final String SERVER_NO_CONTEXT_TAKEOVER = "server_no_context_takeover";
+    private static final String CLIENT_NO_CONTEXT_TAKEOVER = "client_no_context_takeover";
+    private static final String SERVER_MAX_WINDOW_BITS = "server_max_window_bits";
+    private static final String CLIENT_MAX_WINDOW_BITS = "client_max_window_bits";
+
+    private static final byte[] EMPTY_INFO = new byte[0];
+    private static final byte[] EMPTY_PAYLOAD = new byte[0];
+    private static final byte[] DEFLATE_TAIL = { 0x00, 0x00, (byte) 0xff, (byte) 0xff };
 
     private static final byte[] WEBSOCKET_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11".getBytes(US_ASCII);
 
+    private static final ThreadLocal<WsBeginExHelper> BEGIN_EX_HELPER = ThreadLocal.withInitial(WsBeginExHelper::new);
+    private static final ThreadLocal<WsDataExHelper> DATA_EX_HELPER = ThreadLocal.withInitial(WsDataExHelper::new);
+    private static final ThreadLocal<WsEndExHelper> END_EX_HELPER = ThreadLocal.withInitial(WsEndExHelper::new);
+    private static final ThreadLocal<MutableDirectBuffer> MASK_BUFFER = ThreadLocal.withInitial(UnsafeBuffer::new);
+    private static final ThreadLocal<WsFrameHelper> FRAME_HELPER = ThreadLocal.withInitial(WsFrameHelper::new);
+    private static final ThreadLocal<WsDeflateHelper> DEFLATE_HELPER = ThreadLocal.withInitial(WsDeflateHelper::new);
+    private static final ThreadLocal<WsHandshakeHasher> HANDSHAKE_HASHER = ThreadLocal.withInitial(WsHandshakeHasher::new);
+
     @Function
     public static WsBeginExHelper beginEx()
     {
-        return new WsBeginExHelper();
+        return BEGIN_EX_HELPER.get().wrap();
+    }
+
+    @Function
+    public static WsBeginExMatcherBuilder matchBeginEx()
+    {
+        return new WsBeginExMatcherBuilder();
     }
 
     public static final class WsBeginExHelper
     {
+        private final MutableDirectBuffer writeBuffer;
+        private final MutableDirectBuffer stringBuffer;
         private final WsBeginExFW.Builder wsBeginExRW;
+        private final MutableDirectBuffer extensionsBuffer;
+        private final Array32FW.Builder<WsExtensionFW.Builder, WsExtensionFW> extensionsRW;
+        private final MutableDirectBuffer protocolsBuffer;
+        private final Array32FW.Builder<String8FW.Builder, String8FW> protocolsRW;
+
+        private int deflateFlags;
+        private int serverMaxWindowBits;
+        private int clientMaxWindowBits;
 
         private WsBeginExHelper()
         {
-            MutableDirectBuffer writeBuffer = new UnsafeBuffer(new byte[MAX_BUFFER_SIZE]);
-            this.wsBeginExRW = new WsBeginExFW.Builder()
-                                    .wrap(writeBuffer, 0, writeBuffer.capacity());
+            this.writeBuffer = new UnsafeBuffer(new byte[MAX_BUFFER_SIZE]);
+            this.stringBuffer = new UnsafeBuffer(new byte[MAX_STRING8_SIZE]);
+            this.wsBeginExRW = new WsBeginExFW.Builder();
+            this.extensionsBuffer = new UnsafeBuffer(new byte[MAX_BUFFER_SIZE]);
+            this.extensionsRW = new Array32FW.Builder<>(new WsExtensionFW.Builder(), new WsExtensionFW());
+            this.protocolsBuffer = new UnsafeBuffer(new byte[MAX_BUFFER_SIZE]);
+            this.protocolsRW = new Array32FW.Builder<>(new String8FW.Builder(), new String8FW());
+        }
+
+        private WsBeginExHelper wrap()
+        {
+            wsBeginExRW.wrap(writeBuffer, 0, writeBuffer.capacity());
+            extensionsRW.wrap(extensionsBuffer, 0, extensionsBuffer.capacity());
+            protocolsRW.wrap(protocolsBuffer, 0, protocolsBuffer.capacity());
+            deflateFlags = 0;
+            serverMaxWindowBits = 0;
+            clientMaxWindowBits = 0;
+            return this;
         }
 
         public WsBeginExHelper typeId(
@@ -63,57 +148,1303 @@ public final class WsFunctions
         public WsBeginExHelper protocol(
             String protocol)
         {
-            wsBeginExRW.protocol(protocol);
+            final int length = putStringAscii(stringBuffer, protocol);
+            if (length != -1)
+            {
+                wsBeginExRW.protocol(stringBuffer, 0, length);
+            }
+            else
+            {
+                wsBeginExRW.protocol(protocol);
+            }
             return this;
         }
 
         public WsBeginExHelper scheme(
             String scheme)
         {
-            wsBeginExRW.scheme(scheme);
+            final int length = putStringAscii(stringBuffer, scheme);
+            if (length != -1)
+            {
+                wsBeginExRW.scheme(stringBuffer, 0, length);
+            }
+            else
+            {
+                wsBeginExRW.scheme(scheme);
+            }
             return this;
         }
 
         public WsBeginExHelper authority(
             String authority)
         {
-            wsBeginExRW.authority(authority);
+            final int length = putStringAscii(stringBuffer, authority);
+            if (length != -1)
+            {
+                wsBeginExRW.authority(stringBuffer, 0, length);
+            }
+            else
+            {
+                wsBeginExRW.authority(authority);
+            }
             return this;
         }
 
         public WsBeginExHelper path(
             String path)
         {
-            wsBeginExRW.path(path);
+            final int length = putStringAscii(stringBuffer, path);
+            if (length != -1)
+            {
+                wsBeginExRW.path(stringBuffer, 0, length);
+            }
+            else
+            {
+                wsBeginExRW.path(path);
+            }
+            return this;
+        }
+
+        public WsBeginExHelper extension(
+            String name,
+            String params)
+        {
+            extensionsRW.item(e -> e.name(name).params(params));
+
+            // deflate fields are derived from the negotiated permessage-deflate params
+            if (PERMESSAGE_DEFLATE.equals(name))
+            {
+                final Map<String, String> parameters = extensionParams(params);
+                deflateFlags = deflateFlags(parameters);
+                serverMaxWindowBits = maxWindowBits(parameters, SERVER_MAX_WINDOW_BITS);
+                clientMaxWindowBits = maxWindowBits(parameters, CLIENT_MAX_WINDOW_BITS);
+            }
+            return this;
+        }
+
+        public WsBeginExHelper offeredProtocol(
+            String protocol)
+        {
+            protocolsRW.item(p -> p.set(protocol, US_ASCII));
             return this;
         }
 
         public byte[] build()
         {
-            final WsBeginExFW wsBeginEx = wsBeginExRW.build();
+            final WsBeginExFW wsBeginEx = wsBeginExRW.deflateFlags(deflateFlags)
+                                                     .serverMaxWindowBits(serverMaxWindowBits)
+                                                     .clientMaxWindowBits(clientMaxWindowBits)
+                                                     .extensions(extensionsRW.build())
+                                                     .protocols(protocolsRW.build())
+                                                     .build();
             final byte[] result = new byte[wsBeginEx.sizeof()];
             wsBeginEx.buffer().getBytes(0, result);
             return result;
         }
     }
 
+    public static final class WsBeginExMatcherBuilder
+    {
+        private final DirectBuffer bufferRO = new UnsafeBuffer();
+        private final WsBeginExFW beginExRO = new WsBeginExFW();
+
+        private Integer typeId;
+        private Predicate<String> protocol;
+        private Predicate<String> scheme;
+        private Predicate<String> authority;
+        private Predicate<String> path;
+        private int deflateFlags;
+        private int deflateFlagsMask;
+        private Integer serverMaxWindowBits;
+        private Integer clientMaxWindowBits;
+        private Predicate<Array32FW<WsExtensionFW>> extensions;
+        private Array32FW.Builder<String8FW.Builder, String8FW> offeredProtocolsRW;
+        private Array32FW<String8FW> offeredProtocols;
+
+        private WsBeginExMatcherBuilder()
+        {
+        }
+
+        public WsBeginExMatcherBuilder typeId(
+            int typeId)
+        {
+            this.typeId = typeId;
+            return this;
+        }
+
+        public WsBeginExMatcherBuilder protocol(
+            String protocol)
+        {
+            this.protocol = v -> Objects.equals(protocol, v);
+            return this;
+        }
+
+        public WsBeginExMatcherBuilder scheme(
+            String scheme)
+        {
+            this.scheme = v -> Objects.equals(scheme, v);
+            return this;
+        }
+
+        public WsBeginExMatcherBuilder authority(
+            String authority)
+        {
+            this.authority = v -> Objects.equals(authority, v);
+            return this;
+        }
+
+        public WsBeginExMatcherBuilder path(
+            String path)
+        {
+            this.path = v -> Objects.equals(path, v);
+            return this;
+        }
+
+        public WsBeginExMatcherBuilder pathPrefix(
+            String pathPrefix)
+        {
+            this.path = v -> v != null && v.startsWith(pathPrefix);
+            return this;
+        }
+
+        public WsBeginExMatcherBuilder extension(
+            String name,
+            String params)
+        {
+            final Map<String, String> parameters = extensionParams(params);
+            final Predicate<Array32FW<WsExtensionFW>> extension = a -> a.anyMatch(e -> matchExtension(name, parameters, e));
+            this.extensions = extensions != null ? extensions.and(extension) : extension;
+
+            // the deflate fields must agree with the permessage-deflate params they are derived from
+            if (PERMESSAGE_DEFLATE.equals(name))
+            {
+                deflateFlagsMask = FLAG_SERVER_NO_CONTEXT_TAKEOVER | FLAG_CLIENT_NO_CONTEXT_TAKEOVER;
+                deflateFlags = deflateFlags(parameters);
+                serverMaxWindowBits = maxWindowBits(parameters, SERVER_MAX_WINDOW_BITS);
+                clientMaxWindowBits = maxWindowBits(parameters, CLIENT_MAX_WINDOW_BITS);
+            }
+            return this;
+        }
+
+        public WsBeginExMatcherBuilder offeredProtocol(
+            String protocol)
+        {
+            if (offeredProtocolsRW == null)
+            {
+                offeredProtocolsRW = new Array32FW.Builder<>(new String8FW.Builder(), new String8FW());
+                offeredProtocolsRW.wrap(new UnsafeBuffer(new byte[MAX_BUFFER_SIZE]), 0, MAX_BUFFER_SIZE);
+            }
+            offeredProtocolsRW.item(p -> p.set(protocol, US_ASCII));
+            return this;
+        }
+
+        public BytesMatcher build()
+        {
+            offeredProtocols = offeredProtocolsRW != null ? offeredProtocolsRW.build() : null;
+            return typeId != null ? this::match : buf -> null;
+        }
+
+        private WsBeginExFW match(
+            ByteBuffer byteBuf) throws Exception
+        {
+            if (!byteBuf.hasRemaining())
+            {
+                return null;
+            }
+
+            bufferRO.wrap(byteBuf);
+            final WsBeginExFW beginEx = beginExRO.tryWrap(bufferRO, byteBuf.position(), byteBuf.limit());
+
+            if (beginEx != null &&
+                matchTypeId(beginEx) &&
+                matchString(protocol, beginEx.protocol()) &&
+                matchString(scheme, beginEx.scheme()) &&
+                matchString(authority, beginEx.authority()) &&
+                matchString(path, beginEx.path()) &&
+                matchDeflateFlags(beginEx) &&
+                matchWindowBits(serverMaxWindowBits, beginEx.serverMaxWindowBits()) &&
+                matchWindowBits(clientMaxWindowBits, beginEx.clientMaxWindowBits()) &&
+                matchExtensions(beginEx) &&
+                matchOfferedProtocols(beginEx))
+            {
+                byteBuf.position(byteBuf.position() + beginEx.sizeof());
+                return beginEx;
+            }
+
+            throw new Exception(String.valueOf(beginEx));
+        }
+
+        private boolean matchTypeId(
+            WsBeginExFW beginEx)
+        {
+            return typeId == beginEx.typeId();
+        }
+
+        private boolean matchDeflateFlags(
+            WsBeginExFW beginEx)
+        {
+            return (beginEx.deflateFlags() & deflateFlagsMask) == deflateFlags;
+        }
+
+        private boolean matchExtensions(
+            WsBeginExFW beginEx)
+        {
+            return extensions == null || extensions.test(beginEx.extensions());
+        }
+
+        private boolean matchOfferedProtocols(
+            WsBeginExFW beginEx)
+        {
+            // expected protocols are pre-encoded, so compare the encoded items in place
+            final Array32FW<String8FW> protocols = beginEx.protocols();
+            return offeredProtocols == null ||
+                offeredProtocols.fieldCount() == protocols.fieldCount() &&
+                offeredProtocols.items().compareTo(protocols.items()) == 0;
+        }
+
+        private static boolean matchExtension(
+            String name,
+            Map<String, String> parameters,
+            WsExtensionFW extension)
+        {
+            return Objects.equals(name, extension.name().asString()) &&
+                parameters.equals(extensionParams(extension.params().asString()));
+        }
+
+        private static boolean matchWindowBits(
+            Integer windowBits,
+            int value)
+        {
+            return windowBits == null || windowBits == value;
+        }
+
+        private static boolean matchString(
+            Predicate<String> matcher,
+            String8FW value)
+        {
+            return matcher == null || matcher.test(value.asString());
+        }
+    }
+
     @Function
-    public static String handshakeKey()
+    public static WsDataExHelper dataEx()
     {
-        Random random = ThreadLocalRandom.current();
-        byte[] bytes = new byte[16];
-        random.nextBytes(bytes);
-        return BASE64_ENCODER.encodeToString(bytes);
+        return DATA_EX_HELPER.get().wrap();
     }
 
     @Function
-    public static String handshakeHash(
-        String wsKey) throws NoSuchAlgorithmException
+    public static WsDataExMatcherBuilder matchDataEx()
+    {
+        return new WsDataExMatcherBuilder();
+    }
+
+    public static final class WsDataExHelper
+    {
+        private final MutableDirectBuffer writeBuffer;
+        private final DirectBuffer infoRO;
+        private final WsDataExFW.Builder wsDataExRW;
+
+        private int typeId;
+        private int flags;
+
+        private WsDataExHelper()
+        {
+            this.writeBuffer = new UnsafeBuffer(new byte[MAX_BUFFER_SIZE]);
+            this.infoRO = new UnsafeBuffer();
+            this.wsDataExRW = new WsDataExFW.Builder();
+        }
+
+        private WsDataExHelper wrap()
+        {
+            typeId = 0;
+            flags = FLAG_FIN | opcodeOf("binary");
+            infoRO.wrap(EMPTY_INFO);
+            return this;
+        }
+
+        public WsDataExHelper typeId(
+            int typeId)
+        {
+            this.typeId = typeId;
+            return this;
+        }
+
+        public WsDataExHelper flags(
+            int flags)
+        {
+            this.flags = flags;
+            return this;
+        }
+
+        public WsDataExHelper fin(
+            boolean fin)
+        {
+            this.flags = fin ? flags | FLAG_FIN : flags & ~FLAG_FIN;
+            return this;
+        }
+
+        public WsDataExHelper rsv(
+            int rsv)
+        {
+            this.flags = (flags & ~MASK_RSV) | ((rsv << 4) & MASK_RSV);
+            return this;
+        }
+
+        public WsDataExHelper opcode(
+            String opcode)
+        {
+            this.flags = (flags & ~MASK_OPCODE) | opcodeOf(opcode);
+            return this;
+        }
+
+        public WsDataExHelper info(
+            byte[] info)
+        {
+            infoRO.wrap(info);
+            return this;
+        }
+
+        public byte[] build()
+        {
+            final WsDataExFW wsDataEx = wsDataExRW.wrap(writeBuffer, 0, writeBuffer.capacity())
+                                                  .typeId(typeId)
+                                                  .flags(flags)
+                                                  .info(infoRO, 0, infoRO.capacity())
+                                                  .build();
+            final byte[] result = new byte[wsDataEx.sizeof()];
+            wsDataEx.buffer().getBytes(0, result);
+            return result;
+        }
+    }
+
+    public static final class WsDataExMatcherBuilder
+    {
+        private final DirectBuffer bufferRO = new UnsafeBuffer();
+        private final WsDataExFW dataExRO = new WsDataExFW();
+
+        private Integer typeId;
+        private int flags;
+        private int flagsMask;
+
+        private WsDataExMatcherBuilder()
+        {
+        }
+
+        public WsDataExMatcherBuilder typeId(
+            int typeId)
+        {
+            this.typeId = typeId;
+            return this;
+        }
+
+        public WsDataExMatcherBuilder flags(
+            int flags)
+        {
+            return matchFlags(0xff, flags);
+        }
+
+        public WsDataExMatcherBuilder fin(
+            boolean fin)
+        {
+            return matchFlags(FLAG_FIN, fin ? FLAG_FIN : 0);
+        }
+
+        public WsDataExMatcherBuilder rsv(
+            int rsv)
+        {
+            return matchFlags(MASK_RSV, rsv << 4);
+        }
+
+        public WsDataExMatcherBuilder opcode(
+            String opcode)
+        {
+            return matchFlags(MASK_OPCODE, opcodeOf(opcode));
+        }
+
+        public BytesMatcher build()
+        {
+            return typeId != null ? this::match : buf -> null;
+        }
+
+        private WsDataExMatcherBuilder matchFlags(
+            int mask,
+            int value)
+        {
+            this.flags = (flags & ~mask) | (value & mask);
+            this.flagsMask |= mask;
+            return this;
+        }
+
+        private WsDataExFW match(
+            ByteBuffer byteBuf) throws Exception
+        {
+            if (!byteBuf.hasRemaining())
+            {
+                return null;
+            }
+
+            bufferRO.wrap(byteBuf);
+            final WsDataExFW dataEx = dataExRO.tryWrap(bufferRO, byteBuf.position(), byteBuf.limit());
+
+            if (dataEx != null &&
+                matchTypeId(dataEx) &&
+                matchFlags(dataEx))
+            {
+                byteBuf.position(byteBuf.position() + dataEx.sizeof());
+                return dataEx;
+            }
+
+            throw new Exception(String.valueOf(dataEx));
+        }
+
+        private boolean matchTypeId(
+            WsDataExFW dataEx)
+        {
+            return typeId == dataEx.typeId();
+        }
+
+        private boolean matchFlags(
+            WsDataExFW dataEx)
+        {
+            return (dataEx.flags() & flagsMask) == flags;
+        }
+    }
+
+    @Function
+    public static WsEndExHelper endEx()
+    {
+        return END_EX_HELPER.get().wrap();
+    }
+
+    @Function
+    public static WsEndExMatcherBuilder matchEndEx()
+    {
+        return new WsEndExMatcherBuilder();
+    }
+
+    public static final class WsEndExHelper
+    {
+        private final MutableDirectBuffer writeBuffer;
+        private final MutableDirectBuffer stringBuffer;
+        private final WsEndExFW.Builder wsEndExRW;
+
+        private WsEndExHelper()
+        {
+            this.writeBuffer = new UnsafeBuffer(new byte[MAX_BUFFER_SIZE]);
+            this.stringBuffer = new UnsafeBuffer(new byte[MAX_STRING8_SIZE]);
+            this.wsEndExRW = new WsEndExFW.Builder();
+        }
+
+        private WsEndExHelper wrap()
+        {
+            wsEndExRW.wrap(writeBuffer, 0, writeBuffer.capacity());
+            return this;
+        }
+
+        public WsEndExHelper typeId(
+            int typeId)
+        {
+            wsEndExRW.typeId(typeId);
+            return this;
+        }
+
+        public WsEndExHelper code(
+            int code)
+        {
+            wsEndExRW.code((short) code);
+            return this;
+        }
+
+        public WsEndExHelper reason(
+            String reason)
+        {
+            final int length = putStringAscii(stringBuffer, reason);
+            if (length != -1)
+            {
+                wsEndExRW.reason(stringBuffer, 0, length);
+            }
+            else
+            {
+                wsEndExRW.reason(reason);
+            }
+            return this;
+        }
+
+        public byte[] build()
+        {
+            final WsEndExFW wsEndEx = wsEndExRW.build();
+            final byte[] result = new byte[wsEndEx.sizeof()];
+            wsEndEx.buffer().getBytes(0, result);
+            return result;
+        }
+    }
+
+    public static final class WsEndExMatcherBuilder
     {
-        MessageDigest sha1 = MessageDigest.getInstance("SHA-1");
-        sha1.update(wsKey.getBytes(US_ASCII));
-        byte[] digest = sha1.digest(WEBSOCKET_GUID);
-        return BASE64_ENCODER.encodeToString(digest);
+        private final DirectBuffer bufferRO = new UnsafeBuffer();
+        private final WsEndExFW endExRO = new WsEndExFW();
+
+        private Integer typeId;
+        private Integer code;
+        private String reason;
+
+        private WsEndExMatcherBuilder()
+        {
+        }
+
+        public WsEndExMatcherBuilder typeId(
+            int typeId)
+        {
+            this.typeId = typeId;
+            return this;
+        }
+
+        public WsEndExMatcherBuilder code(
+            int code)
+        {
+            this.code = code;
+            return this;
+        }
+
+        public WsEndExMatcherBuilder reason(
+            String reason)
+        {
+            this.reason = reason;
+            return this;
+        }
+
+        public BytesMatcher build()
+        {
+            return typeId != null ? this::match : buf -> null;
+        }
+
+        private WsEndExFW match(
+            ByteBuffer byteBuf) throws Exception
+        {
+            if (!byteBuf.hasRemaining())
+            {
+                return null;
+            }
+
+            bufferRO.wrap(byteBuf);
+            final WsEndExFW endEx = endExRO.tryWrap(bufferRO, byteBuf.position(), byteBuf.limit());
+
+            if (endEx != null &&
+                matchTypeId(endEx) &&
+                matchCode(endEx) &&
+                matchReason(endEx))
+            {
+                byteBuf.position(byteBuf.position() + endEx.sizeof());
+                return endEx;
+            }
+
+            throw new Exception(String.valueOf(endEx));
+        }
+
+        private boolean matchTypeId(
+            WsEndExFW endEx)
+        {
+            return typeId == endEx.typeId();
+        }
+
+        private boolean matchCode(
+            WsEndExFW endEx)
+        {
+            return code == null || code == endEx.code();
+        }
+
+        private boolean matchReason(
+            WsEndExFW endEx)
+        {
+            return reason == null || reason.equals(endEx.reason().asString());
+        }
+    }
+
+    @Function
+    public static WsFrameHelper frame()
+    {
+        return FRAME_HELPER.get().wrap();
+    }
+
+    @Function
+    public static WsFrameMatcherBuilder matchFrame()
+    {
+        return new WsFrameMatcherBuilder();
+    }
+
+    public static final class WsFrameHelper
+    {
+        private MutableDirectBuffer writeBuffer;
+
+        private int flags;
+        private byte[] maskingKey;
+        private byte[] payload;
+        private long length;
+
+        private WsFrameHelper()
+        {
+            this.writeBuffer = new ExpandableArrayBuffer(MAX_BUFFER_SIZE);
+        }
+
+        private WsFrameHelper wrap()
+        {
+            flags = FLAG_FIN | opcodeOf("binary");
+            maskingKey = null;
+            payload = EMPTY_PAYLOAD;
+            length = -1L;
+            return this;
+        }
+
+        public WsFrameHelper fin(
+            boolean fin)
+        {
+            this.flags = fin ? flags | FLAG_FIN : flags & ~FLAG_FIN;
+            return this;
+        }
+
+        public WsFrameHelper rsv(
+            int rsv)
+        {
+            this.flags = (flags & ~MASK_RSV) | ((rsv << 4) & MASK_RSV);
+            return this;
+        }
+
+        public WsFrameHelper opcode(
+            String opcode)
+        {
+            this.flags = (flags & ~MASK_OPCODE) | opcodeOf(opcode);
+            return this;
+        }
+
+        public WsFrameHelper mask(
+            byte[] maskingKey)
+        {
+            if (maskingKey != null && maskingKey.length != MASKING_KEY_SIZE)
+            {
+                throw new IllegalArgumentException("masking key must be 4 bytes");
+            }
+            this.maskingKey = maskingKey;
+            return this;
+        }
+
+        public WsFrameHelper payload(
+            byte[] payload)
+        {
+            this.payload = payload != null ? payload : EMPTY_PAYLOAD;
+            return this;
+        }
+
+        public WsFrameHelper length(
+            long length)
+        {
+            if (length < 0L)
+            {
+                throw new IllegalArgumentException("length must not be negative");
+            }
+            this.length = length;
+            return this;
+        }
+
+        public byte[] build()
+        {
+            if (length != -1L && length < payload.length)
+            {
+                throw new IllegalArgumentException("length must not be less than payload length");
+            }
+
+            final long payloadLength = length != -1L ? length : payload.length;
+            final int maskFlag = maskingKey != null ? FLAG_MASK : 0x00;
+
+            int progress = 0;
+            writeBuffer.putByte(progress++, (byte) flags);
+
+            if (payloadLength <= MAX_LENGTH_7)
+            {
+                writeBuffer.putByte(progress++, (byte) (maskFlag | (int) payloadLength));
+            }
+            else if (payloadLength <= MAX_LENGTH_16)
+            {
+                writeBuffer.putByte(progress++, (byte) (maskFlag | LENGTH_16));
+                writeBuffer.putShort(progress, (short) payloadLength, ByteOrder.BIG_ENDIAN);
+                progress += Short.BYTES;
+            }
+            else
+            {
+                writeBuffer.putByte(progress++, (byte) (maskFlag | LENGTH_64));
+                writeBuffer.putLong(progress, payloadLength, ByteOrder.BIG_ENDIAN);
+                progress += Long.BYTES;
+            }
+
+            if (maskingKey != null)
+            {
+                writeBuffer.putBytes(progress, maskingKey);
+                progress += MASKING_KEY_SIZE;
+            }
+
+            writeBuffer.putBytes(progress, payload);
+
+            if (maskingKey != null)
+            {
+                applyMask(writeBuffer, progress, payload.length, maskingKey);
+            }
+            progress += payload.length;
+
+            final byte[] result = new byte[progress];
+            writeBuffer.getBytes(0, result);
+
+            if (writeBuffer.capacity() > MAX_BUFFER_SIZE)
+            {
+                // release large frames rather than holding them per thread
+                writeBuffer = new ExpandableArrayBuffer(MAX_BUFFER_SIZE);
+            }
+
+            return result;
+        }
+
+        int capacity()
+        {
+            return writeBuffer.capacity();
+        }
+    }
+
+    public static final class WsFrameMatcherBuilder
+    {
+        private final byte[] maskingKey = new byte[MASKING_KEY_SIZE];
+
+        private int flags;
+        private int flagsMask;
+        private Boolean masked;
+        private byte[] payload;
+        private WsInflaterHelper inflater;
+
+        private WsFrameMatcherBuilder()
+        {
+        }
+
+        public WsFrameMatcherBuilder fin(
+            boolean fin)
+        {
+            return matchFlags(FLAG_FIN, fin ? FLAG_FIN : 0);
+        }
+
+        public WsFrameMatcherBuilder rsv(
+            int rsv)
+        {
+            return matchFlags(MASK_RSV, rsv << 4);
+        }
+
+        public WsFrameMatcherBuilder opcode(
+            String opcode)
+        {
+            return matchFlags(MASK_OPCODE, opcodeOf(opcode));
+        }
+
+        public WsFrameMatcherBuilder masked(
+            boolean masked)
+        {
+            this.masked = masked;
+            return this;
+        }
+
+        public WsFrameMatcherBuilder payload(
+            byte[] payload)
+        {
+            this.payload = payload;
+            return this;
+        }
+
+        public WsFrameMatcherBuilder inflate(
+            WsInflaterHelper inflater)
+        {
+            this.inflater = inflater;
+            return this;
+        }
+
+        public BytesMatcher build()
+        {
+            return this::match;
+        }
+
+        private WsFrameMatcherBuilder matchFlags(
+            int mask,
+            int value)
+        {
+            this.flags = (flags & ~mask) | (value & mask);
+            this.flagsMask |= mask;
+            return this;
+        }
+
+        private byte[] match(
+            ByteBuffer byteBuf) throws Exception
+        {
+            final int offset = byteBuf.position();
+            final int available = byteBuf.limit() - offset;
+
+            if (available < 2)
+            {
+                return null;
+            }
+
+            final int frameFlags = byteBuf.get(offset) & 0xff;
+            final int maskAndLength = byteBuf.get(offset + 1) & 0xff;
+            final boolean frameMasked = (maskAndLength & FLAG_MASK) != 0;
+            final int length7 = maskAndLength & MASK_LENGTH;
+            final int extendedSize = length7 == LENGTH_64 ? Long.BYTES : length7 == LENGTH_16 ? Short.BYTES : 0;
+            final int maskingKeyOffset = 2 + extendedSize;
+            final int headerSize = maskingKeyOffset + (frameMasked ? MASKING_KEY_SIZE : 0);
+
+            if (available < headerSize)
+            {
+                return null;
+            }
+
+            long payloadLength = extendedSize == 0 ? length7 : 0L;
+            for (int index = 0; index < extendedSize; index++)
+            {
+                payloadLength = (payloadLength << 8) | (byteBuf.get(offset + 2 + index) & 0xff);
+            }
+
+            if (payloadLength < 0L || payloadLength > Integer.MAX_VALUE)
+            {
+                throw new Exception(String.format("frame [flags=0x%02x, length=%d]", frameFlags, payloadLength));
+            }
+
+            if (available - headerSize < payloadLength)
+            {
+                return null;
+            }
+
+            final byte[] framePayload = new byte[(int) payloadLength];
+            byteBuf.position(offset + headerSize);
+            byteBuf.get(framePayload);
+            byteBuf.position(offset);
+
+            if (frameMasked)
+            {
+                for (int index = 0; index < MASKING_KEY_SIZE; index++)
+                {
+                    maskingKey[index] = byteBuf.get(offset + maskingKeyOffset + index);
+                }
+
+                final MutableDirectBuffer buffer = MASK_BUFFER.get();
+                buffer.wrap(framePayload);
+                applyMask(buffer, 0, framePayload.length, maskingKey);
+                buffer.wrap(EMPTY_PAYLOAD);
+            }
+
+            final boolean frameMatched = (frameFlags & flagsMask) == flags && (masked == null || masked == frameMasked);
+
+            // inflated payload is only known once the final fragment of the message arrives
+            final byte[] message = frameMatched && inflater != null
+                    ? inflater.inflate(framePayload, (frameFlags & FLAG_FIN) != 0)
+                    : framePayload;
+
+            if (!frameMatched ||
+                payload != null && message != null && !Arrays.equals(payload, message))
+            {
+                throw new Exception(String.format("frame [flags=0x%02x, masked=%b, length=%d]",
+                        frameFlags, frameMasked, payloadLength));
+            }
+
+            byteBuf.position(offset + headerSize + framePayload.length);
+            return framePayload;
+        }
+    }
+
+    @Function
+    public static byte[] mask(
+        byte[] bytes,
+        byte[] maskingKey)
+    {
+        if (maskingKey.length != MASKING_KEY_SIZE)
+        {
+            throw new IllegalArgumentException("masking key must be 4 bytes");
+        }
+
+        final byte[] masked = bytes.clone();
+        final MutableDirectBuffer buffer = MASK_BUFFER.get();
+        buffer.wrap(masked);
+        applyMask(buffer, 0, masked.length, maskingKey);
+        buffer.wrap(EMPTY_PAYLOAD);
+        return masked;
+    }
+
+    @Function
+    public static byte[] payload(
+        long seed,
+        int length)
+    {
+        return payloadSlice(seed, 0L, length);
+    }
+
+    @Function
+    public static byte[] payloadSlice(
+        long seed,
+        long offset,
+        int length)
+    {
+        if (offset < 0L || length < 0)
+        {
+            throw new IllegalArgumentException("offset and length must not be negative");
+        }
+
+        final byte[] payload = new byte[length];
+
+        long position = offset;
+        int index = 0;
+        while (index < length)
+        {
+            final long word = payloadWord(seed, position >>> 3);
+            for (int shift = (int) (position & 0x07) << 3; shift < Long.SIZE && index < length; shift += Byte.SIZE)
+            {
+                payload[index++] = (byte) (word >>> shift);
+                position++;
+            }
+        }
+
+        return payload;
+    }
+
+    @Function
+    public static byte[] repeat(
+        byte[] bytes,
+        int count)
+    {
+        if (count < 0)
+        {
+            throw new IllegalArgumentException("count must not be negative");
+        }
+
+        final byte[] repeated = new byte[bytes.length * count];
+        for (int index = 0; index < count; index++)
+        {
+            System.arraycopy(bytes, 0, repeated, index * bytes.length, bytes.length);
+        }
+
+        return repeated;
+    }
+
+    @Function
+    public static byte[] deflate(
+        byte[] payload)
+    {
+        return DEFLATE_HELPER.get().reset().deflate(payload);
+    }
+
+    @Function
+    public static WsDeflaterHelper deflater()
+    {
+        return new WsDeflaterHelper();
+    }
+
+    public static final class WsDeflaterHelper
+    {
+        private final WsDeflateHelper deflater;
+        private final List<byte[]> messages;
+
+        private WsDeflaterHelper()
+        {
+            this.deflater = new WsDeflateHelper();
+            this.messages = new ArrayList<>();
+        }
+
+        // k3po evaluates expressions more than once, so each message is deflated once in sequence and then remembered
+        public byte[] deflate(
+            int message,
+            byte[] payload)
+        {
+            if (message == messages.size())
+            {
+                messages.add(deflater.deflate(payload));
+            }
+            else if (message > messages.size())
+            {
+                throw new IllegalStateException(String.format("expected message %d", messages.size()));
+            }
+
+            return messages.get(message);
+        }
+    }
+
+    @Function
+    public static WsInflaterHelper inflater()
+    {
+        return new WsInflaterHelper();
+    }
+
+    public static final class WsInflaterHelper
+    {
+        private final Inflater inflater;
+
+        private byte[] compressed;
+        private int compressedLength;
+        private byte[] buffer;
+
+        private WsInflaterHelper()
+        {
+            this.inflater = new Inflater(true);
+            this.compressed = new byte[MAX_BUFFER_SIZE];
+            this.buffer = new byte[MAX_BUFFER_SIZE];
+        }
+
+        private byte[] inflate(
+            byte[] fragment,
+            boolean fin) throws DataFormatException
+        {
+            append(fragment);
+
+            if (!fin)
+            {
+                return null;
+            }
+
+            // RFC 7692, section 7.2.2: restore the 0x00 0x00 0xff 0xff tail before inflating the message
+            append(DEFLATE_TAIL);
+            inflater.setInput(compressed, 0, compressedLength);
+            compressedLength = 0;
+
+            int length = 0;
+            do
+            {
+                if (length == buffer.length)
+                {
+                    buffer = Arrays.copyOf(buffer, buffer.length << 1);
+                }
+                length += inflater.inflate(buffer, length, buffer.length - length);
+            }
+            while (length == buffer.length);
+
+            return Arrays.copyOf(buffer, length);
+        }
+
+        private void append(
+            byte[] bytes)
+        {
+            if (compressedLength + bytes.length > compressed.length)
+            {
+                compressed = Arrays.copyOf(compressed, Math.max(compressed.length << 1, compressedLength + bytes.length));
+            }
+
+            System.arraycopy(bytes, 0, compressed, compressedLength, bytes.length);
+            compressedLength += bytes.length;
+        }
+    }
+
+    private static final class WsDeflateHelper
+    {
+        private final Deflater deflater;
+
+        private byte[] buffer;
+
+        private WsDeflateHelper()
+        {
+            this.deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+            this.buffer = new byte[MAX_BUFFER_SIZE];
+        }
+
+        private WsDeflateHelper reset()
+        {
+            deflater.reset();
+            return this;
+        }
+
+        private byte[] deflate(
+            byte[] payload)
+        {
+            deflater.setInput(payload);
+
+            int length = 0;
+            do
+            {
+                if (length == buffer.length)
+                {
+                    buffer = Arrays.copyOf(buffer, buffer.length << 1);
+                }
+                length += deflater.deflate(buffer, length, buffer.length - length, Deflater.SYNC_FLUSH);
+            }
+            while (length == buffer.length);
+
+            // RFC 7692, section 7.2.1: remove the 0x00 0x00 0xff 0xff tail of the sync flush
+            return Arrays.copyOf(buffer, length - DEFLATE_TAIL_SIZE);
+        }
+    }
+
+    @Function
+    public static String handshakeKey()
+    {
+        Random random = ThreadLocalRandom.current();
+        byte[] bytes = new byte[16];
+        random.nextBytes(bytes);
+        return BASE64_ENCODER.encodeToString(bytes);
+    }
+
+    @Function
+    public static String handshakeHash(
+        String wsKey) throws NoSuchAlgorithmException
+    {
+        return HANDSHAKE_HASHER.get().hash(wsKey);
+    }
+
+    private static final class WsHandshakeHasher
+    {
+        private static final int SHA1_DIGEST_BASE64_SIZE = 28;
+
+        private final byte[] encoded = new byte[SHA1_DIGEST_BASE64_SIZE];
+
+        private byte[] key = new byte[24];
+        private MessageDigest sha1;
+
+        private String hash(
+            String wsKey) throws NoSuchAlgorithmException
+        {
+            if (sha1 == null)
+            {
+                sha1 = MessageDigest.getInstance("SHA-1");
+            }
+
+            final int keyLength = wsKey.length();
+            if (keyLength > key.length)
+            {
+                key = new byte[keyLength];
+            }
+
+            for (int index = 0; index < keyLength; index++)
+            {
+                key[index] = (byte) wsKey.charAt(index);
+            }
+
+            sha1.update(key, 0, keyLength);
+            final byte[] digest = sha1.digest(WEBSOCKET_GUID);
+
+            final int encodedLength = BASE64_ENCODER.encode(digest, encoded);
+            return new String(encoded, 0, encodedLength, US_ASCII);
+        }
+    }
+
+    private static int opcodeOf(
+        String opcode)
+    {
+        switch (opcode)
+        {
+        case "continuation":
+            return 0x00;
+        case "text":
+            return 0x01;
+        case "binary":
+            return 0x02;
+        case "close":
+            return 0x08;
+        case "ping":
+            return 0x09;
+        case "pong":
+            return 0x0a;
+        default:
+            throw new IllegalArgumentException(opcode);
+        }
+    }
+
+    // RFC 7692, section 5: params are unordered, so compare them by name
+    private static Map<String, String> extensionParams(
+        String params)
+    {
+        final Map<String, String> parameters = new HashMap<>();
+        if (params != null)
+        {
+            for (String param : params.split(";"))
+            {
+                final String[] nameAndValue = param.split("=", 2);
+                final String name = nameAndValue[0].trim();
+                if (!name.isEmpty())
+                {
+                    parameters.put(name, nameAndValue.length > 1 ? nameAndValue[1].trim() : null);
+                }
+            }
+        }
+        return parameters;
+    }
+
+    private static int deflateFlags(
+        Map<String, String> parameters)
+    {
+        int flags = 0;
+        if (parameters.containsKey(SERVER_NO_CONTEXT_TAKEOVER))
+        {
+            flags |= FLAG_SERVER_NO_CONTEXT_TAKEOVER;
+        }
+        if (parameters.containsKey(CLIENT_NO_CONTEXT_TAKEOVER))
+        {
+            flags |= FLAG_CLIENT_NO_CONTEXT_TAKEOVER;
+        }
+        return flags;
+    }
+
+    private static int maxWindowBits(
+        Map<String, String> parameters,
+        String name)
+    {
+        final String windowBits = parameters.get(name);
+        return windowBits != null ? Integer.parseInt(windowBits) : DEFAULT_MAX_WINDOW_BITS;
+    }
+
+    private static void applyMask(
+        MutableDirectBuffer buffer,
+        int offset,
+        int length,
+        byte[] maskingKey)
+    {
+        final int key32 = (maskingKey[0] & 0xff) | (maskingKey[1] & 0xff) << 8 |
+                          (maskingKey[2] & 0xff) << 16 | (maskingKey[3] & 0xff) << 24;
+        final long key64 = (key32 & 0xffffffffL) | (long) key32 << 32;
+
+        final int limit = offset + length;
+        final int wordLimit = offset + (length & ~(Long.BYTES - 1));
+
+        int index = offset;
+        for (; index < wordLimit; index += Long.BYTES)
+        {
+            buffer.putLong(index, buffer.getLong(index, ByteOrder.LITTLE_ENDIAN) ^ key64, ByteOrder.LITTLE_ENDIAN);
+        }
+
+        for (; index < limit; index++)
+        {
+            buffer.putByte(index, (byte) (buffer.getByte(index) ^ maskingKey[(index - offset) & 0x03]));
+        }
+    }
+
+    // SplitMix64 keyed by word position, so any slice can be regenerated on its own
+    private static long payloadWord(
+        long seed,
+        long counter)
+    {
+        long z = seed + (counter + 1L) * 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int putStringAscii(
+        MutableDirectBuffer buffer,
+        String value)
+    {
+        int length = -1;
+
+        if (value != null && value.length() <= buffer.capacity())
+        {
+            length = value.length();
+
+            for (int index = 0; index < length; index++)
+            {
+                final char ch = value.charAt(index);
+                if (ch > 0x7f)
+                {
+                    length = -1;
+                    break;
+                }
+                buffer.putByte(index, (byte) ch);
+            }
+        }
+
+        return length;
     }
 
     public static class Mapper extends FunctionMapperSpi.Reflective
@@ -16,4 +16,6 @@
 open module org.reaktivity.specification.nukleus.ws
 {
     requires transitive org.reaktivity.specification.nukleus.http;
+    requires junit;
+    requires k3po.junit;
 }
@@ -0,0 +1,109 @@
+/**
+ * Copyright 2016-2021 The Reaktivity Project
+ *
+ * The Reaktivity Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.reaktivity.specification.nukleus.ws.streams;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.rules.TestRule;
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.RunWith;
+import org.junit.runners.model.Statement;
+
+public class LatencyRuleTest
+{
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNonPositiveRepetitions()
+    {
+        new LatencyRule(0);
+    }
+
+    @Test
+    public void shouldNotReportWithoutSamples() throws Throwable
+    {
+        final File directory = new File(folder.getRoot(), "latency");
+        final LatencyRule rule = new LatencyRule(directory.getPath(), 1);
+        final Description description = Description.createTestDescription(LatencyRuleTest.class, "test");
+        final Statement test = rule.perTest().apply(new NoopStatement(), description);
+
+        rule.apply(test, description).evaluate();
+
+        assertFalse(directory.exists());
+    }
+
+    @Test
+    public void shouldRepeatEachTest()
+    {
+        RepeatedTest.RUNS.set(0);
+
+        final Result result = JUnitCore.runClasses(RepeatedTest.class);
+
+        assertTrue(result.wasSuccessful());
+        assertEquals(3, result.getRunCount());
+        assertEquals(6, RepeatedTest.RUNS.get());
+    }
+
+    @RunWith(LatencyRule.Repeated.class)
+    public static class RepeatedTest
+    {
+        static final AtomicInteger RUNS = new AtomicInteger();
+
+        @ClassRule
+        public static final LatencyRule LATENCY = new LatencyRule(2);
+
+        @Rule
+        public final TestRule perTest = LATENCY.perTest();
+
+        @Test
+        public void shouldRunFirst()
+        {
+            RUNS.incrementAndGet();
+        }
+
+        @Test
+        public void shouldRunSecond()
+        {
+            RUNS.incrementAndGet();
+        }
+
+        @Test
+        public void shouldRunThird()
+        {
+            RUNS.incrementAndGet();
+        }
+    }
+
+    private static final class NoopStatement extends Statement
+    {
+        @Override
+        public void evaluate()
+        {
+        }
+    }
+}
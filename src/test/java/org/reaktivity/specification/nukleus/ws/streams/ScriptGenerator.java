@@ -0,0 +1,464 @@
+/**
+ * Copyright 2016-2021 The Reaktivity Project
+ *
+ * The Reaktivity Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.reaktivity.specification.nukleus.ws.streams;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Generates the scripts whose size scales with a stream or connection count, and the padding and
+ * window sweep whose variants must not drift apart, so that only the generator is kept in source control.
+ * <p>
+ * Runs from the test classpath during {@code process-test-classes}, writing into the main output
+ * directory so that the generated scripts are packaged with the checked-in ones. Takes the output
+ * directory, the copyright header template and the copyright years as arguments.
+ */
+public final class ScriptGenerator
+{
+    private static final String NETWORK = "org/reaktivity/specification/nukleus/ws/streams/network";
+
+    private static final String[][] EXTENDED_CONNECT_HEADERS =
+    {
+        { ":method", "\"CONNECT\"" },
+        { ":protocol", "\"websocket\"" },
+        { ":scheme", "\"https\"" },
+        { ":authority", "\"localhost:8080\"" },
+        { ":path", "\"/echo\"" },
+        { "sec-websocket-version", "\"13\"" },
+    };
+
+    private static final String[][] EXTENDED_CONNECT_RESPONSE_HEADERS =
+    {
+        { ":status", "\"200\"" },
+    };
+
+    private static final String[][] UPGRADE_HEADERS =
+    {
+        { ":method", "GET" },
+        { ":scheme", "http" },
+        { ":authority", "localhost:8080" },
+        { ":path", "/echo" },
+        { "upgrade", "websocket" },
+        { "connection", "upgrade" },
+        { "sec-websocket-key", null },
+        { "sec-websocket-version", "13" },
+    };
+
+    private static final int HANDSHAKE_KEY_LENGTH = 24;
+
+    private static final int[] PADDINGS = { 0, 256, 1024, 4096 };
+    private static final int[] WINDOWS = { 256, 4096, 65536, 1048576 };
+
+    private static final int WS_FRAMING = 14;
+
+    private final Path directory;
+    private final String header;
+
+    private ScriptGenerator(
+        Path directory,
+        String header)
+    {
+        this.directory = directory;
+        this.header = header;
+    }
+
+    public static void main(
+        String... args) throws IOException
+    {
+        final String copyright = new String(Files.readAllBytes(Paths.get(args[1])), UTF_8)
+            .replace("${copyrightYears}", args[2]);
+
+        final ScriptGenerator generator = new ScriptGenerator(Paths.get(args[0]), scriptHeader(copyright));
+
+        generator.multiplexedStreams("echo.binary.payloads.multiplexed.streams", 256, 4, 1024,
+            new int[] { 512, 1024, 2048, 4096, 8192 }, 512);
+
+        for (int connections = 10; connections <= 10000; connections *= 10)
+        {
+            generator.multipleConnections(connections, 1000);
+        }
+
+        for (int padding : PADDINGS)
+        {
+            for (int window : WINDOWS)
+            {
+                if (padding < window)
+                {
+                    generator.paddedEcho(padding, window, 82000);
+                }
+            }
+        }
+    }
+
+    private void multiplexedStreams(
+        String name,
+        int streams,
+        int frames,
+        int length,
+        int[] windows,
+        int acceptWindow) throws IOException
+    {
+        final StringBuilder requests = new StringBuilder();
+        requests.append("property writeMask ${http:randomBytes(4)}\n");
+        requests.append("property payloadSeed 8441\n");
+
+        final StringBuilder responses = new StringBuilder();
+        responses.append("property payloadSeed 8441\n");
+        responses.append('\n');
+        accept(responses, acceptWindow);
+
+        for (int stream = 0; stream < streams; stream++)
+        {
+            requests.append(stream != 0 ? "\n\n" : "\n");
+            connect(requests, windows[stream % windows.length]);
+            beginEx(requests, "write", "beginEx", EXTENDED_CONNECT_HEADERS);
+            beginEx(requests, "read", "beginEx", EXTENDED_CONNECT_RESPONSE_HEADERS);
+            requests.append("connected\n");
+            requests.append('\n');
+
+            responses.append(stream != 0 ? "\n" : "");
+            responses.append("accepted\n");
+            responses.append('\n');
+            beginEx(responses, "read", "matchBeginEx", EXTENDED_CONNECT_HEADERS);
+            beginEx(responses, "write", "beginEx", EXTENDED_CONNECT_RESPONSE_HEADERS);
+            responses.append("connected\n");
+            responses.append('\n');
+
+            for (int frame = 0; frame < frames; frame++)
+            {
+                final String payload = String.format("ws:payloadSlice(payloadSeed, %d, %d)",
+                    (long) (stream * frames + frame) * length, length);
+
+                requests.append(String.format(
+                    "write ${ws:frame().opcode(\"binary\").mask(writeMask).payload(%s).build()}\n", payload));
+                requests.append(String.format(
+                    "read ${ws:matchFrame().fin(true).opcode(\"binary\").masked(false).payload(%s).build()}\n", payload));
+
+                responses.append(String.format(
+                    "read ${ws:matchFrame().fin(true).opcode(\"binary\").masked(true).payload(%s).build()}\n", payload));
+                responses.append(String.format(
+                    "write ${ws:frame().opcode(\"binary\").payload(%s).build()}\n", payload));
+            }
+
+            requests.append(String.format("read notify STREAM_%d_ECHOED\n", stream));
+        }
+
+        write(String.format("%s/http2/%s/handshake.requests.and.frames.rpt", NETWORK, name), requests);
+        write(String.format("%s/http2/%s/handshake.responses.and.frames.rpt", NETWORK, name), responses);
+    }
+
+    private void multipleConnections(
+        int connections,
+        int backlog) throws IOException
+    {
+        final String name = String.format("multiple.connections.established.%d", connections);
+
+        final StringBuilder requests = new StringBuilder();
+        requests.append("property location 'http://localhost:8080/echo'\n");
+
+        final StringBuilder responses = new StringBuilder();
+        responses.append("property location 'http://localhost:8080/echo'\n");
+        responses.append('\n');
+        accept(responses, 8192);
+
+        for (int connection = 0; connection < connections; connection++)
+        {
+            final String key = String.format("key%d", connection);
+            final String[][] upgradeResponseHeaders = upgradeResponseHeaders(key);
+
+            requests.append(String.format("property %s ${ws:handshakeKey()}\n", key));
+            requests.append('\n');
+            if (connection < backlog)
+            {
+                connect(requests, 8192);
+            }
+            else
+            {
+                // bound the handshakes in flight to the backlog
+                connect(requests, String.format("CONNECTION_%d_ESTABLISHED", connection - backlog), 8192);
+            }
+            beginEx(requests, "write", "beginEx", upgradeHeaders(key));
+            beginEx(requests, "read", "beginEx", upgradeResponseHeaders);
+            requests.append("connected\n");
+            requests.append('\n');
+            if (connection != 0)
+            {
+                // chain the barriers so that each one implies every earlier connection is established
+                requests.append(String.format("read await CONNECTION_%d_ESTABLISHED\n", connection - 1));
+            }
+            requests.append(connection + 1 < connections
+                ? String.format("read notify CONNECTION_%d_ESTABLISHED\n", connection)
+                : "read notify CONNECTED\n");
+            requests.append('\n');
+
+            responses.append(connection != 0 ? "\n" : "");
+            responses.append("accepted\n");
+            responses.append('\n');
+            upgradeBeginEx(responses, key);
+            beginEx(responses, "write", "beginEx", upgradeResponseHeaders);
+            responses.append("connected\n");
+        }
+
+        requests.append(String.format("# %d connections established\n", connections));
+        responses.append('\n');
+        responses.append(String.format("# %d connections established\n", connections));
+
+        write(String.format("%s/opening/%s/handshake.requests.rpt", NETWORK, name), requests);
+        write(String.format("%s/opening/%s/handshake.responses.rpt", NETWORK, name), responses);
+    }
+
+    private void paddedEcho(
+        int padding,
+        int window,
+        int acceptWindow) throws IOException
+    {
+        final String name = String.format("echo.payload.with.padding.%d.window.%d", padding, window);
+        final int length = window <= 0x10000 ? 0xffff : window << 1;
+        final int fragment = window - padding - WS_FRAMING;
+        final String arithmetic = String.format("# %d = %d - %d (padding) - %d (ws framing)\n",
+            fragment, window, padding, WS_FRAMING);
+
+        final StringBuilder client = new StringBuilder();
+        client.append("property location 'http://localhost:8080/echo'\n");
+        client.append("property key ${ws:handshakeKey()}\n");
+        client.append("property writeMask ${http:randomBytes(4)}\n");
+        client.append("property payloadSeed 65535\n");
+        client.append(String.format("property initialWindow %d\n", window));
+        client.append('\n');
+        client.append("connect \"nukleus://streams/net#0\"\n");
+        client.append("  option nukleus:window ${initialWindow}\n");
+        client.append("  option nukleus:transmission \"duplex\"\n");
+        client.append(String.format("  option nukleus:padding %d\n", padding));
+        client.append('\n');
+        beginEx(client, "write", "beginEx", upgradeHeaders("key"));
+        beginEx(client, "read", "beginEx", upgradeResponseHeaders("key"));
+        client.append("connected\n");
+        client.append('\n');
+        client.append("write ${ws:frame()\n");
+        client.append("            .opcode(\"binary\")\n");
+        client.append("            .mask(writeMask)\n");
+        client.append(String.format("            .payload(ws:payload(payloadSeed, %d))\n", length));
+        client.append("            .build()}\n");
+        client.append('\n');
+        client.append(arithmetic);
+
+        final StringBuilder server = new StringBuilder();
+        server.append("property location 'http://localhost:8080/echo'\n");
+        server.append(String.format("property initialWindow %d\n", acceptWindow));
+        server.append('\n');
+        server.append("accept \"nukleus://streams/net#0\"\n");
+        server.append("  option nukleus:window ${initialWindow}\n");
+        server.append("  option nukleus:transmission \"duplex\"\n");
+        server.append("accepted\n");
+        server.append('\n');
+        upgradeBeginEx(server, "key");
+        beginEx(server, "write", "beginEx", upgradeResponseHeaders("key"));
+        server.append("connected\n");
+        server.append('\n');
+        server.append(String.format("read %s ([0..4] :readMask)\n", frameHeader(length, true)));
+        server.append("read option mask ${readMask}\n");
+
+        final StringBuilder echoes = new StringBuilder(arithmetic);
+        for (int offset = 0, part = 1; offset < length; offset += fragment, part++)
+        {
+            final int size = Math.min(fragment, length - offset);
+
+            client.append(String.format("read %s ${ws:payloadSlice(payloadSeed, %d, %d)}\n",
+                frameHeader(size, false), offset, size));
+
+            server.append(String.format("read ([0..%d] :part%d)\n", size, part));
+            echoes.append(String.format("write ${ws:frame().opcode(\"binary\").payload(part%d).build()}\n", part));
+        }
+
+        server.append("read option mask [0x00 0x00 0x00 0x00]\n");
+        server.append('\n');
+        server.append(echoes);
+
+        write(String.format("%s/flowcontrol/%s/client.rpt", NETWORK, name), client);
+        write(String.format("%s/flowcontrol/%s/server.rpt", NETWORK, name), server);
+    }
+
+    private static String[][] upgradeResponseHeaders(
+        String key)
+    {
+        return new String[][]
+        {
+            { ":status", "\"101\"" },
+            { "upgrade", "\"websocket\"" },
+            { "connection", "\"upgrade\"" },
+            { "sec-websocket-accept", String.format("ws:handshakeHash(%s)", key) },
+        };
+    }
+
+    private static String[][] upgradeHeaders(
+        String key)
+    {
+        final String[][] headers = new String[UPGRADE_HEADERS.length][];
+        for (int i = 0; i < headers.length; i++)
+        {
+            final String[] header = UPGRADE_HEADERS[i];
+            headers[i] = new String[] { header[0], header[1] != null ? String.format("\"%s\"", header[1]) : key };
+        }
+        return headers;
+    }
+
+    private static void upgradeBeginEx(
+        StringBuilder script,
+        String key)
+    {
+        final String indent = " ".repeat("read nukleus:begin.ext ".length());
+
+        int length = Integer.BYTES;
+        for (String[] header : UPGRADE_HEADERS)
+        {
+            length += Byte.BYTES + header[0].length() + Short.BYTES +
+                (header[1] != null ? header[1].length() : HANDSHAKE_KEY_LENGTH);
+        }
+
+        script.append("read nukleus:begin.ext ${nukleus:id(\"http\")}\n");
+        script.append(indent).append(littleEndian(length, Integer.BYTES)).append('\n');
+        script.append(indent).append(littleEndian(UPGRADE_HEADERS.length, Integer.BYTES)).append('\n');
+        for (String[] header : UPGRADE_HEADERS)
+        {
+            final String value = header[1] != null
+                ? String.format("\"%s\"", header[1])
+                : String.format("/(?<%s>[a-zA-Z0-9+\\/=]{%d})/", key, HANDSHAKE_KEY_LENGTH);
+            final int valueLength = header[1] != null ? header[1].length() : HANDSHAKE_KEY_LENGTH;
+
+            script.append(indent).append(String.format("%s \"%s\" %s %s\n",
+                littleEndian(header[0].length(), Byte.BYTES), header[0], littleEndian(valueLength, Short.BYTES), value));
+        }
+        script.append('\n');
+    }
+
+    private static String frameHeader(
+        int length,
+        boolean masked)
+    {
+        final int mask = masked ? 0x80 : 0x00;
+        final StringBuilder header = new StringBuilder("[0x82");
+        if (length < 126)
+        {
+            header.append(String.format(" 0x%02x", mask | length));
+        }
+        else if (length <= 0xffff)
+        {
+            header.append(String.format(" 0x%02x", mask | 126)).append(bigEndian(length, Short.BYTES));
+        }
+        else
+        {
+            header.append(String.format(" 0x%02x", mask | 127)).append(bigEndian(length, Long.BYTES));
+        }
+        return header.append(']').toString();
+    }
+
+    private static String bigEndian(
+        long value,
+        int size)
+    {
+        final StringBuilder bytes = new StringBuilder();
+        for (int i = size - 1; i >= 0; i--)
+        {
+            bytes.append(String.format(" 0x%02x", (value >> (i * Byte.SIZE)) & 0xff));
+        }
+        return bytes.toString();
+    }
+
+    private static String littleEndian(
+        int value,
+        int size)
+    {
+        final StringBuilder bytes = new StringBuilder("[");
+        for (int i = 0; i < size; i++)
+        {
+            bytes.append(i != 0 ? " " : "").append(String.format("0x%02x", (value >> (i * Byte.SIZE)) & 0xff));
+        }
+        return bytes.append(']').toString();
+    }
+
+    private static void connect(
+        StringBuilder script,
+        int window)
+    {
+        script.append("connect \"nukleus://streams/net#0\"\n");
+        script.append(String.format("  option nukleus:window %d\n", window));
+        script.append("  option nukleus:transmission \"duplex\"\n");
+        script.append('\n');
+    }
+
+    private static void connect(
+        StringBuilder script,
+        String barrier,
+        int window)
+    {
+        script.append(String.format("connect await %s\n", barrier));
+        script.append("        \"nukleus://streams/net#0\"\n");
+        script.append(String.format("  option nukleus:window %d\n", window));
+        script.append("  option nukleus:transmission \"duplex\"\n");
+        script.append('\n');
+    }
+
+    private static void accept(
+        StringBuilder script,
+        int window)
+    {
+        script.append("accept \"nukleus://streams/net#0\"\n");
+        script.append(String.format("  option nukleus:window %d\n", window));
+        script.append("  option nukleus:transmission \"duplex\"\n");
+    }
+
+    private static void beginEx(
+        StringBuilder script,
+        String verb,
+        String function,
+        String[][] headers)
+    {
+        final String indent = " ".repeat(verb.length() + " nukleus:begin.ext ${".length() + 4);
+
+        script.append(String.format("%s nukleus:begin.ext ${http:%s()\n", verb, function));
+        script.append(indent).append(".typeId(nukleus:id(\"http\"))\n");
+        for (String[] header : headers)
+        {
+            script.append(indent).append(String.format(".header(\"%s\", %s)\n", header[0], header[1]));
+        }
+        script.append(indent).append(".build()}\n");
+        script.append('\n');
+    }
+
+    private void write(
+        String path,
+        CharSequence script) throws IOException
+    {
+        final Path file = directory.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, (header + '\n' + script).getBytes(UTF_8));
+    }
+
+    private static String scriptHeader(
+        String copyright)
+    {
+        final StringBuilder header = new StringBuilder("#\n");
+        for (String line : copyright.split("\n", -1))
+        {
+            header.append(line.isEmpty() ? "#" : "# " + line).append('\n');
+        }
+        return header.toString();
+    }
+}
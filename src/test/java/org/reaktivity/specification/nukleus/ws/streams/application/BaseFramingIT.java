@@ -18,7 +18,6 @@ package org.reaktivity.specification.nukleus.ws.streams.application;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.junit.rules.RuleChain.outerRule;
 
-import org.junit.Ignore;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.DisableOnDebug;
@@ -62,9 +61,6 @@ public class BaseFramingIT
         k3po.finish();
     }
 
-    // TODO: make high-level (cooked) versions of scripts for the tests below
-    // and change streams to streams
-
     @Test
     @Specification({
         "${app}/echo.binary.payload.length.126/handshake.request.and.frame",
@@ -78,7 +74,6 @@ public class BaseFramingIT
     @Specification({
         "${app}/echo.binary.payload.length.127/handshake.request.and.frame",
         "${app}/echo.binary.payload.length.127/handshake.response.and.frame" })
-    @Ignore("High Level script not yet completed")
     public void shouldEchoBinaryFrameWithPayloadLength127() throws Exception
     {
         k3po.finish();
@@ -88,7 +83,6 @@ public class BaseFramingIT
     @Specification({
         "${app}/echo.binary.payload.length.128/handshake.request.and.frame",
         "${app}/echo.binary.payload.length.128/handshake.response.and.frame" })
-    @Ignore("High Level script not yet completed")
     public void shouldEchoBinaryFrameWithPayloadLength128() throws Exception
     {
         k3po.finish();
@@ -107,17 +101,33 @@ public class BaseFramingIT
     @Specification({
         "${app}/echo.binary.payload.length.65536/handshake.request.and.frame",
         "${app}/echo.binary.payload.length.65536/handshake.response.and.frame" })
-    @Ignore("High Level script not yet completed")
     public void shouldEchoBinaryFrameWithPayloadLength65536() throws Exception
     {
         k3po.finish();
     }
 
+    @Test
+    @Specification({
+        "${app}/echo.binary.payload.length.1048576/handshake.request.and.frame",
+        "${app}/echo.binary.payload.length.1048576/handshake.response.and.frame" })
+    public void shouldEchoBinaryFrameWithPayloadLength1048576() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${app}/echo.binary.payload.length.16777216/handshake.request.and.frame",
+        "${app}/echo.binary.payload.length.16777216/handshake.response.and.frame" })
+    public void shouldEchoBinaryFrameWithPayloadLength16777216() throws Exception
+    {
+        k3po.finish();
+    }
+
     @Test
     @Specification({
         "${app}/echo.text.payload.length.0/handshake.request.and.frame",
         "${app}/echo.text.payload.length.0/handshake.response.and.frame" })
-    @Ignore("High Level script not yet completed")
     public void shouldEchoTextFrameWithPayloadLength0() throws Exception
     {
         k3po.finish();
@@ -127,7 +137,6 @@ public class BaseFramingIT
     @Specification({
         "${app}/echo.text.payload.length.125/handshake.request.and.frame",
         "${app}/echo.text.payload.length.125/handshake.response.and.frame" })
-    @Ignore("High Level script not yet completed")
     public void shouldEchoTextFrameWithPayloadLength125() throws Exception
     {
         k3po.finish();
@@ -137,7 +146,6 @@ public class BaseFramingIT
     @Specification({
         "${app}/echo.text.payload.length.126/handshake.request.and.frame",
         "${app}/echo.text.payload.length.126/handshake.response.and.frame" })
-    @Ignore("High Level script not yet completed")
     public void shouldEchoTextFrameWithPayloadLength126() throws Exception
     {
         k3po.finish();
@@ -147,7 +155,6 @@ public class BaseFramingIT
     @Specification({
         "${app}/echo.text.payload.length.127/handshake.request.and.frame",
         "${app}/echo.text.payload.length.127/handshake.response.and.frame" })
-    @Ignore("High Level script not yet completed")
     public void shouldEchoTextFrameWithPayloadLength127() throws Exception
     {
         k3po.finish();
@@ -157,7 +164,6 @@ public class BaseFramingIT
     @Specification({
         "${app}/echo.text.payload.length.128/handshake.request.and.frame",
         "${app}/echo.text.payload.length.128/handshake.response.and.frame" })
-    @Ignore("High Level script not yet completed")
     public void shouldEchoTextFrameWithPayloadLength128() throws Exception
     {
         k3po.finish();
@@ -167,7 +173,6 @@ public class BaseFramingIT
     @Specification({
         "${app}/echo.text.payload.length.65535/handshake.request.and.frame",
         "${app}/echo.text.payload.length.65535/handshake.response.and.frame" })
-    @Ignore("High Level script not yet completed")
     public void shouldEchoTextFrameWithPayloadLength65535() throws Exception
     {
         k3po.finish();
@@ -177,9 +182,26 @@ public class BaseFramingIT
     @Specification({
         "${app}/echo.text.payload.length.65536/handshake.request.and.frame",
         "${app}/echo.text.payload.length.65536/handshake.response.and.frame" })
-    @Ignore("High Level script not yet completed")
     public void shouldEchoTextFrameWithPayloadLength65536() throws Exception
     {
         k3po.finish();
     }
+
+    @Test
+    @Specification({
+        "${app}/echo.coalesced.frames.16/handshake.request.and.frames",
+        "${app}/echo.coalesced.frames.16/handshake.response.and.frames" })
+    public void shouldEchoCoalescedFrames16() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${app}/echo.coalesced.frames.256/handshake.request.and.frames",
+        "${app}/echo.coalesced.frames.256/handshake.response.and.frames" })
+    public void shouldEchoCoalescedFrames256() throws Exception
+    {
+        k3po.finish();
+    }
 }
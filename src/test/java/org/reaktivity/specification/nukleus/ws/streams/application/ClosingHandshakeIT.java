@@ -57,4 +57,13 @@ public class ClosingHandshakeIT
     {
         k3po.finish();
     }
+
+    @Test
+    @Specification({
+        "${app}/client.send.close.frame.with.code.1001/handshake.request.and.frame",
+        "${app}/client.send.close.frame.with.code.1001/handshake.response.and.frame" })
+    public void shouldCompleteCloseHandshakeWhenClientSendCloseFrameWithCode1001() throws Exception
+    {
+        k3po.finish();
+    }
 }
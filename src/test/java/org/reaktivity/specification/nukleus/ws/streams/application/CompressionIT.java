@@ -0,0 +1,108 @@
+/**
+ * Copyright 2016-2021 The Reaktivity Project
+ *
+ * The Reaktivity Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.reaktivity.specification.nukleus.ws.streams.application;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.rules.RuleChain.outerRule;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.DisableOnDebug;
+import org.junit.rules.TestRule;
+import org.junit.rules.Timeout;
+import org.kaazing.k3po.junit.annotation.Specification;
+import org.kaazing.k3po.junit.rules.K3poRule;
+import org.reaktivity.specification.nukleus.NukleusRule;
+
+/**
+ * RFC-7692, section 7.1 "Extension Negotiation Parameters"
+ */
+public class CompressionIT
+{
+    private final K3poRule k3po = new K3poRule()
+        .addScriptRoot("app", "org/reaktivity/specification/nukleus/ws/streams/application/compression");
+
+    private final TestRule timeout = new DisableOnDebug(new Timeout(5, SECONDS));
+
+    private final NukleusRule nukleus = new NukleusRule()
+        .directory("target/nukleus-itests");
+
+    @Rule
+    public final TestRule chain = outerRule(nukleus).around(k3po).around(timeout);
+
+    @Test
+    @Specification({
+        "${app}/permessage.deflate.server.max.window.bits.9.no.context.takeover/handshake.request",
+        "${app}/permessage.deflate.server.max.window.bits.9.no.context.takeover/handshake.response" })
+    public void shouldNegotiatePermessageDeflateWithServerMaxWindowBitsNineAndNoContextTakeover() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${app}/permessage.deflate.server.max.window.bits.10.no.context.takeover/handshake.request",
+        "${app}/permessage.deflate.server.max.window.bits.10.no.context.takeover/handshake.response" })
+    public void shouldNegotiatePermessageDeflateWithServerMaxWindowBitsTenAndNoContextTakeover() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${app}/permessage.deflate.server.max.window.bits.11.no.context.takeover/handshake.request",
+        "${app}/permessage.deflate.server.max.window.bits.11.no.context.takeover/handshake.response" })
+    public void shouldNegotiatePermessageDeflateWithServerMaxWindowBitsElevenAndNoContextTakeover() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${app}/permessage.deflate.server.max.window.bits.12.no.context.takeover/handshake.request",
+        "${app}/permessage.deflate.server.max.window.bits.12.no.context.takeover/handshake.response" })
+    public void shouldNegotiatePermessageDeflateWithServerMaxWindowBitsTwelveAndNoContextTakeover() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${app}/permessage.deflate.server.max.window.bits.13.no.context.takeover/handshake.request",
+        "${app}/permessage.deflate.server.max.window.bits.13.no.context.takeover/handshake.response" })
+    public void shouldNegotiatePermessageDeflateWithServerMaxWindowBitsThirteenAndNoContextTakeover() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${app}/permessage.deflate.server.max.window.bits.14.no.context.takeover/handshake.request",
+        "${app}/permessage.deflate.server.max.window.bits.14.no.context.takeover/handshake.response" })
+    public void shouldNegotiatePermessageDeflateWithServerMaxWindowBitsFourteenAndNoContextTakeover() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${app}/permessage.deflate.server.max.window.bits.15.no.context.takeover/handshake.request",
+        "${app}/permessage.deflate.server.max.window.bits.15.no.context.takeover/handshake.response" })
+    public void shouldNegotiatePermessageDeflateWithServerMaxWindowBitsFifteenAndNoContextTakeover() throws Exception
+    {
+        k3po.finish();
+    }
+}
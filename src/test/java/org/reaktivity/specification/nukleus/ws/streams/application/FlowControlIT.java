@@ -48,4 +48,13 @@ public class FlowControlIT
     {
         k3po.finish();
     }
+
+    @Test
+    @Specification({
+        "${app}/echo.payload.with.window.starvation/client",
+        "${app}/echo.payload.with.window.starvation/server" })
+    public void shouldEchoPayloadWithWindowStarvation() throws Exception
+    {
+        k3po.finish();
+    }
 }
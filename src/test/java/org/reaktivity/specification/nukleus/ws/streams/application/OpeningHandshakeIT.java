@@ -54,6 +54,42 @@ public class OpeningHandshakeIT
         k3po.finish();
     }
 
+    @Test
+    @Specification({
+        "${app}/connection.established.path.prefix/handshake.request",
+        "${app}/connection.established.path.prefix/handshake.response" })
+    public void shouldEstablishConnectionWithPathPrefix() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${app}/connection.established.with.extension/handshake.request",
+        "${app}/connection.established.with.extension/handshake.response" })
+    public void shouldEstablishConnectionWithExtension() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${app}/connection.established.with.extension.parameters/handshake.request",
+        "${app}/connection.established.with.extension.parameters/handshake.response" })
+    public void shouldEstablishConnectionWithExtensionParameters() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${app}/connection.established.with.offered.protocols/handshake.request",
+        "${app}/connection.established.with.offered.protocols/handshake.response" })
+    public void shouldEstablishConnectionWithOfferedProtocols() throws Exception
+    {
+        k3po.finish();
+    }
+
     // TODO: make high-level (cooked) versions of scripts for the tests below
     //       and change net to app
 
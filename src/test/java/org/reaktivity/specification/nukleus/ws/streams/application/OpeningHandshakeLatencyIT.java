@@ -0,0 +1,103 @@
+/**
+ * Copyright 2016-2021 The Reaktivity Project
+ *
+ * The Reaktivity Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.reaktivity.specification.nukleus.ws.streams.application;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.rules.RuleChain.outerRule;
+
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.DisableOnDebug;
+import org.junit.rules.TestRule;
+import org.junit.rules.Timeout;
+import org.junit.runner.RunWith;
+import org.kaazing.k3po.junit.annotation.Specification;
+import org.kaazing.k3po.junit.rules.K3poRule;
+import org.reaktivity.specification.nukleus.NukleusRule;
+import org.reaktivity.specification.nukleus.ws.streams.LatencyRule;
+
+/**
+ * Latency until {@code CONNECTED} for the opening handshakes that establish a connection,
+ * repeated to report percentiles per scenario.
+ */
+@RunWith(LatencyRule.Repeated.class)
+public class OpeningHandshakeLatencyIT
+{
+    private final K3poRule k3po = new K3poRule()
+        .addScriptRoot("app", "org/reaktivity/specification/nukleus/ws/streams/application/opening");
+
+    private final TestRule timeout = new DisableOnDebug(new Timeout(5, SECONDS));
+
+    private final NukleusRule nukleus = new NukleusRule()
+        .directory("target/nukleus-itests");
+
+    @ClassRule
+    public static final LatencyRule LATENCY = new LatencyRule();
+
+    @Rule
+    public final TestRule chain = outerRule(nukleus).around(k3po).around(LATENCY.perTest()).around(timeout);
+
+    @Test
+    @Specification({
+        "${app}/connection.established/handshake.request",
+        "${app}/connection.established/handshake.response" })
+    public void shouldEstablishConnection() throws Exception
+    {
+        LATENCY.awaitConnected(k3po);
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${app}/connection.established.path.prefix/handshake.request",
+        "${app}/connection.established.path.prefix/handshake.response" })
+    public void shouldEstablishConnectionWithPathPrefix() throws Exception
+    {
+        LATENCY.awaitConnected(k3po);
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${app}/connection.established.with.extension/handshake.request",
+        "${app}/connection.established.with.extension/handshake.response" })
+    public void shouldEstablishConnectionWithExtension() throws Exception
+    {
+        LATENCY.awaitConnected(k3po);
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${app}/connection.established.with.extension.parameters/handshake.request",
+        "${app}/connection.established.with.extension.parameters/handshake.response" })
+    public void shouldEstablishConnectionWithExtensionParameters() throws Exception
+    {
+        LATENCY.awaitConnected(k3po);
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${app}/connection.established.with.offered.protocols/handshake.request",
+        "${app}/connection.established.with.offered.protocols/handshake.response" })
+    public void shouldEstablishConnectionWithOfferedProtocols() throws Exception
+    {
+        LATENCY.awaitConnected(k3po);
+        k3po.finish();
+    }
+}
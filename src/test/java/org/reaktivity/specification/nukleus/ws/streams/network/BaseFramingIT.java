@@ -57,6 +57,78 @@ public class BaseFramingIT
         k3po.finish();
     }
 
+    @Test
+    @Specification({
+        "${net}/echo.binary.payload.length.125.header.split/handshake.request.and.frames",
+        "${net}/echo.binary.payload.length.125.header.split/handshake.response.and.frames" })
+    public void shouldEchoBinaryFramesWithPayloadLength125AndHeaderSplitAtEveryOffset() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/echo.binary.payload.length.126.header.split/handshake.request.and.frames",
+        "${net}/echo.binary.payload.length.126.header.split/handshake.response.and.frames" })
+    public void shouldEchoBinaryFramesWithPayloadLength126AndHeaderSplitAtEveryOffset() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/echo.binary.payload.length.65536.header.split/handshake.request.and.frames",
+        "${net}/echo.binary.payload.length.65536.header.split/handshake.response.and.frames" })
+    public void shouldEchoBinaryFramesWithPayloadLength65536AndHeaderSplitAtEveryOffset() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/echo.binary.payload.length.125.header.split.with.payload/handshake.request.and.frames",
+        "${net}/echo.binary.payload.length.125.header.split.with.payload/handshake.response.and.frames" })
+    public void shouldEchoBinaryFramesWithPayloadLength125AndHeaderSplitWithPayloadAtEveryOffset() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/echo.binary.payload.length.126.header.split.with.payload/handshake.request.and.frames",
+        "${net}/echo.binary.payload.length.126.header.split.with.payload/handshake.response.and.frames" })
+    public void shouldEchoBinaryFramesWithPayloadLength126AndHeaderSplitWithPayloadAtEveryOffset() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/echo.binary.payload.length.65536.header.split.with.payload/handshake.request.and.frames",
+        "${net}/echo.binary.payload.length.65536.header.split.with.payload/handshake.response.and.frames" })
+    public void shouldEchoBinaryFramesWithPayloadLength65536AndHeaderSplitWithPayloadAtEveryOffset() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/echo.coalesced.frames.16/handshake.request.and.frames",
+        "${net}/echo.coalesced.frames.16/handshake.response.and.frames" })
+    public void shouldEchoCoalescedFrames16() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/echo.coalesced.frames.256/handshake.request.and.frames",
+        "${net}/echo.coalesced.frames.256/handshake.response.and.frames" })
+    public void shouldEchoCoalescedFrames256() throws Exception
+    {
+        k3po.finish();
+    }
+
     // TODO: get the rest of the tests to run using nukleus transport
 
     @Test
@@ -104,6 +176,33 @@ public class BaseFramingIT
         k3po.finish();
     }
 
+    @Test
+    @Specification({
+        "${net}/echo.binary.payload.length.1048576/handshake.request.and.frame",
+        "${net}/echo.binary.payload.length.1048576/handshake.response.and.frame" })
+    public void shouldEchoBinaryFrameWithPayloadLength1048576() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/echo.binary.payload.length.16777216/handshake.request.and.frame",
+        "${net}/echo.binary.payload.length.16777216/handshake.response.and.frame" })
+    public void shouldEchoBinaryFrameWithPayloadLength16777216() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/echo.binary.payload.length.2147483647/handshake.request.and.frame",
+        "${net}/echo.binary.payload.length.2147483647/handshake.response.and.frame" })
+    public void shouldEchoBinaryFrameWithPayloadLength2147483647Incrementally() throws Exception
+    {
+        k3po.finish();
+    }
+
     @Test
     @Specification({
         "${net}/echo.text.payload.length.0/handshake.request.and.frame",
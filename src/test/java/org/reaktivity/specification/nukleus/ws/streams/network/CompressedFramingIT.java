@@ -0,0 +1,96 @@
+/**
+ * Copyright 2016-2021 The Reaktivity Project
+ *
+ * The Reaktivity Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.reaktivity.specification.nukleus.ws.streams.network;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.rules.RuleChain.outerRule;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.DisableOnDebug;
+import org.junit.rules.TestRule;
+import org.junit.rules.Timeout;
+import org.kaazing.k3po.junit.annotation.Specification;
+import org.kaazing.k3po.junit.rules.K3poRule;
+
+/**
+ * RFC-7692, section 6 "Framing"
+ * RFC-7692, section 7.2 "Data Compression"
+ */
+public class CompressedFramingIT
+{
+    private final K3poRule k3po = new K3poRule()
+        .addScriptRoot("net", "org/reaktivity/specification/nukleus/ws/streams/network/compression");
+
+    private final TestRule timeout = new DisableOnDebug(new Timeout(5, SECONDS));
+
+    @Rule
+    public final TestRule chain = outerRule(k3po).around(timeout);
+
+    @Test
+    @Specification({
+        "${net}/echo.compressed.text.message/handshake.request.and.frame",
+        "${net}/echo.compressed.text.message/handshake.response.and.frame" })
+    public void shouldEchoCompressedTextMessage() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/echo.compressed.text.message.fragmented/handshake.request.and.frame",
+        "${net}/echo.compressed.text.message.fragmented/handshake.response.and.frame" })
+    public void shouldEchoCompressedTextMessageFragmented() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/echo.compressed.text.message.with.empty.fragment/handshake.request.and.frame",
+        "${net}/echo.compressed.text.message.with.empty.fragment/handshake.response.and.frame" })
+    public void shouldEchoCompressedTextMessageWithEmptyFragment() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/echo.compressed.text.messages.with.context.takeover/handshake.request.and.frame",
+        "${net}/echo.compressed.text.messages.with.context.takeover/handshake.response.and.frame" })
+    public void shouldEchoCompressedTextMessagesWithContextTakeover() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/echo.compressed.binary.messages.with.context.takeover/handshake.request.and.frame",
+        "${net}/echo.compressed.binary.messages.with.context.takeover/handshake.response.and.frame" })
+    public void shouldEchoCompressedBinaryMessagesWithContextTakeover() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/echo.compressed.binary.messages.no.context.takeover/handshake.request.and.frame",
+        "${net}/echo.compressed.binary.messages.no.context.takeover/handshake.response.and.frame" })
+    public void shouldEchoCompressedBinaryMessagesNoContextTakeover() throws Exception
+    {
+        k3po.finish();
+    }
+}
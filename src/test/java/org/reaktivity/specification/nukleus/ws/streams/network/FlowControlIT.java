@@ -47,4 +47,139 @@ public class FlowControlIT
     {
         k3po.finish();
     }
+
+    @Test
+    @Specification({
+        "${net}/echo.payload.with.window.starvation/client",
+        "${net}/echo.payload.with.window.starvation/server" })
+    public void shouldEchoPayloadWithWindowStarvation() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/echo.payload.with.window.exhausted.mid.frame/client",
+        "${net}/echo.payload.with.window.exhausted.mid.frame/server" })
+    public void shouldEchoPayloadWithWindowExhaustedMidFrame() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/echo.payload.with.padding.0.window.256/client",
+        "${net}/echo.payload.with.padding.0.window.256/server" })
+    public void shouldEchoPayloadWithPadding0Window256() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/echo.payload.with.padding.0.window.4096/client",
+        "${net}/echo.payload.with.padding.0.window.4096/server" })
+    public void shouldEchoPayloadWithPadding0Window4096() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/echo.payload.with.padding.0.window.65536/client",
+        "${net}/echo.payload.with.padding.0.window.65536/server" })
+    public void shouldEchoPayloadWithPadding0Window65536() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/echo.payload.with.padding.0.window.1048576/client",
+        "${net}/echo.payload.with.padding.0.window.1048576/server" })
+    public void shouldEchoPayloadWithPadding0Window1048576() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/echo.payload.with.padding.256.window.4096/client",
+        "${net}/echo.payload.with.padding.256.window.4096/server" })
+    public void shouldEchoPayloadWithPadding256Window4096() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/echo.payload.with.padding.256.window.65536/client",
+        "${net}/echo.payload.with.padding.256.window.65536/server" })
+    public void shouldEchoPayloadWithPadding256Window65536() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/echo.payload.with.padding.256.window.1048576/client",
+        "${net}/echo.payload.with.padding.256.window.1048576/server" })
+    public void shouldEchoPayloadWithPadding256Window1048576() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/echo.payload.with.padding.1024.window.4096/client",
+        "${net}/echo.payload.with.padding.1024.window.4096/server" })
+    public void shouldEchoPayloadWithPadding1024Window4096() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/echo.payload.with.padding.1024.window.65536/client",
+        "${net}/echo.payload.with.padding.1024.window.65536/server" })
+    public void shouldEchoPayloadWithPadding1024Window65536() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/echo.payload.with.padding.1024.window.1048576/client",
+        "${net}/echo.payload.with.padding.1024.window.1048576/server" })
+    public void shouldEchoPayloadWithPadding1024Window1048576() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/echo.payload.with.padding.4096.window.65536/client",
+        "${net}/echo.payload.with.padding.4096.window.65536/server" })
+    public void shouldEchoPayloadWithPadding4096Window65536() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/echo.payload.with.padding.4096.window.1048576/client",
+        "${net}/echo.payload.with.padding.4096.window.1048576/server" })
+    public void shouldEchoPayloadWithPadding4096Window1048576() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/echo.payloads.with.shared.budget/client",
+        "${net}/echo.payloads.with.shared.budget/server" })
+    public void shouldEchoPayloadsWithSharedBudget() throws Exception
+    {
+        k3po.finish();
+    }
 }
@@ -0,0 +1,87 @@
+/**
+ * Copyright 2016-2021 The Reaktivity Project
+ *
+ * The Reaktivity Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.reaktivity.specification.nukleus.ws.streams.network;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.rules.RuleChain.outerRule;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.DisableOnDebug;
+import org.junit.rules.TestRule;
+import org.junit.rules.Timeout;
+import org.kaazing.k3po.junit.annotation.Specification;
+import org.kaazing.k3po.junit.rules.K3poRule;
+
+/**
+ * RFC-8441, section 4 "The Extended CONNECT Method"
+ * RFC-8441, section 5 "Using Extended CONNECT to Bootstrap the WebSocket Protocol"
+ */
+public class Http2IT
+{
+    private static final int MULTIPLEXED_STREAMS = 256;
+
+    private final K3poRule k3po = new K3poRule()
+        .addScriptRoot("net", "org/reaktivity/specification/nukleus/ws/streams/network/http2");
+
+    private final TestRule timeout = new DisableOnDebug(new Timeout(5, SECONDS));
+
+    @Rule
+    public final TestRule chain = outerRule(k3po).around(timeout);
+
+    @Test
+    @Specification({
+        "${net}/connection.established/handshake.request",
+        "${net}/connection.established/handshake.response" })
+    public void shouldEstablishConnection() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/echo.binary.payload/handshake.request.and.frame",
+        "${net}/echo.binary.payload/handshake.response.and.frame" })
+    public void shouldEchoBinaryPayload() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/echo.binary.payload.concurrent.streams/handshake.requests.and.frames",
+        "${net}/echo.binary.payload.concurrent.streams/handshake.responses.and.frames" })
+    public void shouldEchoBinaryPayloadOnConcurrentStreams() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/echo.binary.payloads.multiplexed.streams/handshake.requests.and.frames",
+        "${net}/echo.binary.payloads.multiplexed.streams/handshake.responses.and.frames" })
+    public void shouldEchoBinaryPayloadsOnMultiplexedStreams() throws Exception
+    {
+        k3po.start();
+
+        for (int stream = 0; stream < MULTIPLEXED_STREAMS; stream++)
+        {
+            k3po.awaitBarrier(String.format("STREAM_%d_ECHOED", stream));
+        }
+
+        k3po.finish();
+    }
+}
@@ -0,0 +1,61 @@
+/**
+ * Copyright 2016-2021 The Reaktivity Project
+ *
+ * The Reaktivity Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.reaktivity.specification.nukleus.ws.streams.network;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.rules.RuleChain.outerRule;
+
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.DisableOnDebug;
+import org.junit.rules.TestRule;
+import org.junit.rules.Timeout;
+import org.junit.runner.RunWith;
+import org.kaazing.k3po.junit.annotation.Specification;
+import org.kaazing.k3po.junit.rules.K3poRule;
+import org.reaktivity.specification.nukleus.ws.streams.LatencyRule;
+
+/**
+ * RFC-6455, section 4.1 "Client-Side Requirements" RFC-6455, section 4.2
+ * "Server-Side Requirements"
+ * <p>
+ * Runs only with the {@code scale} profile, since each repetition takes several seconds.
+ */
+@RunWith(LatencyRule.Repeated.class)
+public class MultipleConnectionsScaleIT
+{
+    private final K3poRule k3po = new K3poRule()
+        .addScriptRoot("net", "org/reaktivity/specification/nukleus/ws/streams/network/opening");
+
+    private final TestRule timeout = new DisableOnDebug(new Timeout(60, SECONDS));
+
+    @ClassRule
+    public static final LatencyRule LATENCY = new LatencyRule(3);
+
+    @Rule
+    public final TestRule chain = outerRule(k3po).around(LATENCY.perTest()).around(timeout);
+
+    @Test
+    @Specification({
+        "${net}/multiple.connections.established.10000/handshake.requests",
+        "${net}/multiple.connections.established.10000/handshake.responses" })
+    public void shouldEstablishTenThousandConnections() throws Exception
+    {
+        LATENCY.awaitConnected(k3po, 10000);
+        k3po.finish();
+    }
+}
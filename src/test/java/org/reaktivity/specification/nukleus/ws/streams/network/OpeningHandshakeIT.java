@@ -111,6 +111,26 @@ public class OpeningHandshakeIT
         k3po.finish();
     }
 
+    @Test
+    @Specification({
+        "${net}/request.header.sec.websocket.protocol.offered.preferred/handshake.request",
+        "${net}/request.header.sec.websocket.protocol.offered.preferred/handshake.response" })
+    public void shouldEstablishConnectionWithOfferedProtocolPreferred()
+            throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/request.header.sec.websocket.protocol.offered.fallback/handshake.request",
+        "${net}/request.header.sec.websocket.protocol.offered.fallback/handshake.response" })
+    public void shouldEstablishConnectionWithOfferedProtocolFallback()
+            throws Exception
+    {
+        k3po.finish();
+    }
+
     @Test
     @Specification({
         "${net}/request.header.sec.websocket.extensions/handshake.request",
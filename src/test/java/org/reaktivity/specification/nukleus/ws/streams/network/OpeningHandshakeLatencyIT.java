@@ -0,0 +1,169 @@
+/**
+ * Copyright 2016-2021 The Reaktivity Project
+ *
+ * The Reaktivity Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.reaktivity.specification.nukleus.ws.streams.network;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.rules.RuleChain.outerRule;
+
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.DisableOnDebug;
+import org.junit.rules.TestRule;
+import org.junit.rules.Timeout;
+import org.junit.runner.RunWith;
+import org.kaazing.k3po.junit.annotation.Specification;
+import org.kaazing.k3po.junit.rules.K3poRule;
+import org.reaktivity.specification.nukleus.ws.streams.LatencyRule;
+
+/**
+ * Latency until {@code CONNECTED} for the opening handshakes that establish a connection,
+ * repeated to report percentiles per scenario.
+ */
+@RunWith(LatencyRule.Repeated.class)
+public class OpeningHandshakeLatencyIT
+{
+    private final K3poRule k3po = new K3poRule()
+        .addScriptRoot("net", "org/reaktivity/specification/nukleus/ws/streams/network/opening");
+
+    private final TestRule timeout = new DisableOnDebug(new Timeout(5, SECONDS));
+
+    @ClassRule
+    public static final LatencyRule LATENCY = new LatencyRule();
+
+    @Rule
+    public final TestRule chain = outerRule(k3po).around(LATENCY.perTest()).around(timeout);
+
+    @Test
+    @Specification({
+        "${net}/connection.established/handshake.request",
+        "${net}/connection.established/handshake.response" })
+    public void shouldEstablishConnection() throws Exception
+    {
+        LATENCY.awaitConnected(k3po);
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/request.header.cookie/handshake.request",
+        "${net}/request.header.cookie/handshake.response" })
+    public void shouldEstablishConnectionWithCookieRequestHeader() throws Exception
+    {
+        LATENCY.awaitConnected(k3po);
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/request.headers.random.case/handshake.request",
+        "${net}/request.headers.random.case/handshake.response" })
+    public void shouldEstablishConnectionWithRandomCaseRequestHeaders() throws Exception
+    {
+        LATENCY.awaitConnected(k3po);
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/response.headers.random.case/handshake.request",
+        "${net}/response.headers.random.case/handshake.response" })
+    public void shouldEstablishConnectionWithRandomCaseResponseHeaders() throws Exception
+    {
+        LATENCY.awaitConnected(k3po);
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/request.header.origin/handshake.request",
+        "${net}/request.header.origin/handshake.response" })
+    public void shouldEstablishConnectionWithRequestHeaderOrigin() throws Exception
+    {
+        LATENCY.awaitConnected(k3po);
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/request.header.sec.websocket.protocol/handshake.request",
+        "${net}/request.header.sec.websocket.protocol/handshake.response" })
+    public void shouldEstablishConnectionWithRequestHeaderSecWebSocketProtocol() throws Exception
+    {
+        LATENCY.awaitConnected(k3po);
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/request.header.sec.websocket.protocol.negotiated/handshake.request",
+        "${net}/request.header.sec.websocket.protocol.negotiated/handshake.response" })
+    public void shouldEstablishConnectionWithRequestHeaderSecWebSocketProtocolNegotiated() throws Exception
+    {
+        LATENCY.awaitConnected(k3po);
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/request.header.sec.websocket.protocol.offered.preferred/handshake.request",
+        "${net}/request.header.sec.websocket.protocol.offered.preferred/handshake.response" })
+    public void shouldEstablishConnectionWithOfferedProtocolPreferred() throws Exception
+    {
+        LATENCY.awaitConnected(k3po);
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/request.header.sec.websocket.protocol.offered.fallback/handshake.request",
+        "${net}/request.header.sec.websocket.protocol.offered.fallback/handshake.response" })
+    public void shouldEstablishConnectionWithOfferedProtocolFallback() throws Exception
+    {
+        LATENCY.awaitConnected(k3po);
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/request.header.sec.websocket.extensions/handshake.request",
+        "${net}/request.header.sec.websocket.extensions/handshake.response" })
+    public void shouldEstablishConnectionWithRequestHeaderSecWebSocketExtensions() throws Exception
+    {
+        LATENCY.awaitConnected(k3po);
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/response.header.sec.websocket.extensions.partial.agreement/handshake.request",
+        "${net}/response.header.sec.websocket.extensions.partial.agreement/handshake.response" })
+    public void shouldEstablishConnectionWithSomeExtensionsNegotiated() throws Exception
+    {
+        LATENCY.awaitConnected(k3po);
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${net}/response.header.sec.websocket.extensions.reordered/handshake.request",
+        "${net}/response.header.sec.websocket.extensions.reordered/handshake.response" })
+    public void shouldEstablishConnectionWhenOrderOfExtensionsNegotiatedChanged() throws Exception
+    {
+        LATENCY.awaitConnected(k3po);
+        k3po.finish();
+    }
+}
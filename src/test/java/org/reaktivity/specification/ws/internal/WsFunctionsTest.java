@@ -15,27 +15,66 @@
  */
 package org.reaktivity.specification.ws.internal;
 
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.kaazing.k3po.lang.internal.el.ExpressionFactoryUtils.newExpressionFactory;
 import static org.reaktivity.specification.ws.internal.WsFunctions.beginEx;
+import static org.reaktivity.specification.ws.internal.WsFunctions.dataEx;
+import static org.reaktivity.specification.ws.internal.WsFunctions.deflate;
+import static org.reaktivity.specification.ws.internal.WsFunctions.deflater;
+import static org.reaktivity.specification.ws.internal.WsFunctions.endEx;
+import static org.reaktivity.specification.ws.internal.WsFunctions.frame;
 import static org.reaktivity.specification.ws.internal.WsFunctions.handshakeHash;
 import static org.reaktivity.specification.ws.internal.WsFunctions.handshakeKey;
+import static org.reaktivity.specification.ws.internal.WsFunctions.inflater;
+import static org.reaktivity.specification.ws.internal.WsFunctions.mask;
+import static org.reaktivity.specification.ws.internal.WsFunctions.matchBeginEx;
+import static org.reaktivity.specification.ws.internal.WsFunctions.matchDataEx;
+import static org.reaktivity.specification.ws.internal.WsFunctions.matchEndEx;
+import static org.reaktivity.specification.ws.internal.WsFunctions.matchFrame;
+import static org.reaktivity.specification.ws.internal.WsFunctions.payload;
+import static org.reaktivity.specification.ws.internal.WsFunctions.payloadSlice;
+import static org.reaktivity.specification.ws.internal.WsFunctions.repeat;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.Inflater;
 
 import javax.el.ELContext;
 import javax.el.ExpressionFactory;
 import javax.el.ValueExpression;
 
 import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
 import org.junit.Before;
 import org.junit.Test;
+import org.kaazing.k3po.lang.el.BytesMatcher;
 import org.kaazing.k3po.lang.internal.el.ExpressionContext;
 import org.reaktivity.nukleus.specification.ws.internal.types.stream.WsBeginExFW;
+import org.reaktivity.nukleus.specification.ws.internal.types.stream.WsDataExFW;
+import org.reaktivity.nukleus.specification.ws.internal.types.stream.WsEndExFW;
 import org.reaktivity.specification.ws.internal.WsFunctions.WsBeginExHelper;
 
+import com.sun.management.ThreadMXBean;
+
 public class WsFunctionsTest
 {
+    private static final String DEFLATE_PARAMS = "server_no_context_takeover; server_max_window_bits=9";
+
     private ExpressionFactory factory;
     private ELContext ctx;
 
@@ -70,6 +109,27 @@ public class WsFunctionsTest
         assertEquals("s3pPLMBiTxaQ9kYGzzhZRbK+xOo=", handshakeHash);
     }
 
+    @Test
+    public void shouldComputeHandshakeHashRepeatedly() throws Exception
+    {
+        assertEquals("s3pPLMBiTxaQ9kYGzzhZRbK+xOo=", handshakeHash("dGhlIHNhbXBsZSBub25jZQ=="));
+        assertEquals("s3pPLMBiTxaQ9kYGzzhZRbK+xOo=", handshakeHash("dGhlIHNhbXBsZSBub25jZQ=="));
+    }
+
+    @Test
+    public void shouldComputeHandshakeHashWithLongKey() throws Exception
+    {
+        final String key = "dGhlIHNhbXBsZSBub25jZQ==".repeat(3);
+
+        MessageDigest sha1 = MessageDigest.getInstance("SHA-1");
+        sha1.update(key.getBytes(US_ASCII));
+        byte[] digest = sha1.digest("258EAFA5-E914-47DA-95CA-C5AB0DC85B11".getBytes(US_ASCII));
+        String expected = Base64.getEncoder().encodeToString(digest);
+
+        assertEquals(expected, handshakeHash(key));
+        assertEquals("s3pPLMBiTxaQ9kYGzzhZRbK+xOo=", handshakeHash("dGhlIHNhbXBsZSBub25jZQ=="));
+    }
+
     @Test
     public void shouldEncodeWsBeginExt()
     {
@@ -89,4 +149,1278 @@ public class WsFunctionsTest
         assertEquals(wsBeginEx.authority().asString(), "localhost:8080");
         assertEquals(wsBeginEx.path().asString(), "/path?query");
     }
+
+    @Test
+    public void shouldEncodeWsBeginExtWithDeflate()
+    {
+        final byte[] array = beginEx().typeId(0x01)
+                                      .protocol("primary")
+                                      .scheme("http")
+                                      .authority("localhost:8080")
+                                      .path("/echo")
+                                      .extension("permessage-deflate", DEFLATE_PARAMS)
+                                      .build();
+
+        DirectBuffer buffer = new UnsafeBuffer(array);
+        WsBeginExFW wsBeginEx = new WsBeginExFW().wrap(buffer, 0, buffer.capacity());
+
+        assertEquals(0x01, wsBeginEx.deflateFlags());
+        assertEquals(9, wsBeginEx.serverMaxWindowBits());
+        assertEquals(15, wsBeginEx.clientMaxWindowBits());
+        assertEquals(array.length, wsBeginEx.sizeof());
+    }
+
+    @Test
+    public void shouldEncodeWsBeginExtWithDeflateClientParams()
+    {
+        final byte[] array = beginEx().typeId(0x01)
+                                      .protocol("primary")
+                                      .scheme("http")
+                                      .authority("localhost:8080")
+                                      .path("/echo")
+                                      .extension("x-example", "server_no_context_takeover")
+                                      .extension("permessage-deflate", " client_max_window_bits = 10;;client_no_context_takeover")
+                                      .build();
+
+        DirectBuffer buffer = new UnsafeBuffer(array);
+        WsBeginExFW wsBeginEx = new WsBeginExFW().wrap(buffer, 0, buffer.capacity());
+
+        assertEquals(0x02, wsBeginEx.deflateFlags());
+        assertEquals(15, wsBeginEx.serverMaxWindowBits());
+        assertEquals(10, wsBeginEx.clientMaxWindowBits());
+    }
+
+    @Test
+    public void shouldEncodeWsBeginExtWithExtensions()
+    {
+        final byte[] array = encodeWsBeginExWithExtensions();
+
+        DirectBuffer buffer = new UnsafeBuffer(array);
+        WsBeginExFW wsBeginEx = new WsBeginExFW().wrap(buffer, 0, buffer.capacity());
+
+        List<String> extensions = new ArrayList<>();
+        wsBeginEx.extensions().forEach(e -> extensions.add(e.name().asString() + ":" + e.params().asString()));
+
+        assertEquals(asList("permessage-deflate:server_no_context_takeover", "x-example:null"), extensions);
+        assertEquals(array.length, wsBeginEx.sizeof());
+    }
+
+    @Test
+    public void shouldEncodeWsBeginExtWithOfferedProtocols()
+    {
+        final byte[] array = encodeWsBeginExWithOfferedProtocols();
+
+        DirectBuffer buffer = new UnsafeBuffer(array);
+        WsBeginExFW wsBeginEx = new WsBeginExFW().wrap(buffer, 0, buffer.capacity());
+
+        List<String> protocols = new ArrayList<>();
+        wsBeginEx.protocols().forEach(p -> protocols.add(p.asString()));
+
+        assertEquals(asList("binary", "json"), protocols);
+        assertEquals(array.length, wsBeginEx.sizeof());
+    }
+
+    @Test
+    public void shouldEncodeWsBeginExtWithoutDeflate()
+    {
+        DirectBuffer buffer = new UnsafeBuffer(encodeWsBeginEx());
+        WsBeginExFW wsBeginEx = new WsBeginExFW().wrap(buffer, 0, buffer.capacity());
+
+        assertEquals(0, wsBeginEx.deflateFlags());
+        assertEquals(0, wsBeginEx.serverMaxWindowBits());
+        assertEquals(0, wsBeginEx.clientMaxWindowBits());
+        assertTrue(wsBeginEx.extensions().isEmpty());
+        assertTrue(wsBeginEx.protocols().isEmpty());
+    }
+
+    @Test
+    public void shouldEncodeWsBeginExtWithNonAsciiAndNullValues()
+    {
+        final byte[] array = beginEx().typeId(0x01)
+                                      .protocol("pr\u00efmary")
+                                      .scheme(null)
+                                      .authority("h\u00e9te:8080")
+                                      .path("/\u00e9cho")
+                                      .build();
+
+        DirectBuffer buffer = new UnsafeBuffer(array);
+        WsBeginExFW wsBeginEx = new WsBeginExFW().wrap(buffer, 0, buffer.capacity());
+
+        assertEquals(wsBeginEx.typeId(), 0x01);
+        assertEquals(wsBeginEx.protocol().asString(), "pr\u00efmary");
+        assertEquals(wsBeginEx.scheme().asString(), null);
+        assertEquals(wsBeginEx.authority().asString(), "h\u00e9te:8080");
+        assertEquals(wsBeginEx.path().asString(), "/\u00e9cho");
+        assertEquals(array.length, wsBeginEx.sizeof());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectWsBeginExtPathTooLong()
+    {
+        beginEx().typeId(0x01)
+                 .protocol("primary")
+                 .scheme("http")
+                 .authority("localhost:8080")
+                 .path("/" + "x".repeat(0xff));
+    }
+
+    @Test
+    public void shouldReuseWsBeginExtHelperPerThread()
+    {
+        final WsBeginExHelper helper = beginEx();
+        helper.typeId(0x01);
+
+        assertSame(helper, beginEx());
+
+        final byte[] array = beginEx().typeId(0x02)
+                                      .protocol("primary")
+                                      .scheme("http")
+                                      .authority("localhost:8080")
+                                      .path("/path")
+                                      .build();
+
+        DirectBuffer buffer = new UnsafeBuffer(array);
+        WsBeginExFW wsBeginEx = new WsBeginExFW().wrap(buffer, 0, buffer.capacity());
+
+        assertEquals(wsBeginEx.typeId(), 0x02);
+        assertEquals(wsBeginEx.path().asString(), "/path");
+    }
+
+    @Test
+    public void shouldEncodeWsBeginExtWithoutSteadyStateAllocation()
+    {
+        final ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long threadId = Thread.currentThread().getId();
+        final int iterations = 10_000;
+
+        int sizeof = 0;
+        for (int i = 0; i < iterations; i++)
+        {
+            sizeof = encodeWsBeginEx().length;
+        }
+
+        final long arrayBytes = (16 + sizeof + 7) & ~7;
+        final long initialAllocated = threads.getThreadAllocatedBytes(threadId);
+
+        for (int i = 0; i < iterations; i++)
+        {
+            encodeWsBeginEx();
+        }
+
+        final long allocated = threads.getThreadAllocatedBytes(threadId) - initialAllocated;
+
+        assertTrue(String.format("allocated %d bytes", allocated), allocated <= iterations * arrayBytes + 1024);
+    }
+
+    private static byte[] encodeWsBeginEx()
+    {
+        return beginEx().typeId(0x01)
+                        .protocol("primary")
+                        .scheme("http")
+                        .authority("localhost:8080")
+                        .path("/path?query")
+                        .build();
+    }
+
+    private static byte[] encodeWsBeginExWithDeflate()
+    {
+        return beginEx().typeId(0x01)
+                        .protocol("primary")
+                        .scheme("http")
+                        .authority("localhost:8080")
+                        .path("/echo")
+                        .extension("permessage-deflate", DEFLATE_PARAMS)
+                        .build();
+    }
+
+    private static byte[] encodeWsBeginExWithDeflateFields(
+        int deflateFlags,
+        int serverMaxWindowBits,
+        int clientMaxWindowBits)
+    {
+        MutableDirectBuffer buffer = new UnsafeBuffer(new byte[256]);
+        WsBeginExFW wsBeginEx = new WsBeginExFW.Builder()
+                .wrap(buffer, 0, buffer.capacity())
+                .typeId(0x01)
+                .protocol("primary")
+                .scheme("http")
+                .authority("localhost:8080")
+                .path("/echo")
+                .deflateFlags(deflateFlags)
+                .serverMaxWindowBits(serverMaxWindowBits)
+                .clientMaxWindowBits(clientMaxWindowBits)
+                .extensionsItem(e -> e.name("permessage-deflate").params(DEFLATE_PARAMS))
+                .build();
+        return Arrays.copyOf(buffer.byteArray(), wsBeginEx.sizeof());
+    }
+
+    private static byte[] encodeWsBeginExWithExtensions()
+    {
+        return beginEx().typeId(0x01)
+                        .protocol("primary")
+                        .scheme("http")
+                        .authority("localhost:8080")
+                        .path("/echo")
+                        .extension("permessage-deflate", "server_no_context_takeover")
+                        .extension("x-example", null)
+                        .build();
+    }
+
+    private static byte[] encodeWsBeginExWithOfferedProtocols()
+    {
+        return beginEx().typeId(0x01)
+                        .protocol(null)
+                        .scheme("http")
+                        .authority("localhost:8080")
+                        .path("/echo")
+                        .offeredProtocol("binary")
+                        .offeredProtocol("json")
+                        .build();
+    }
+
+    @Test
+    public void shouldMatchWsBeginExt() throws Exception
+    {
+        BytesMatcher matcher = matchBeginEx().typeId(0x01)
+                                             .protocol("primary")
+                                             .scheme("http")
+                                             .authority("localhost:8080")
+                                             .path("/path?query")
+                                             .build();
+
+        ByteBuffer byteBuf = ByteBuffer.wrap(encodeWsBeginEx());
+
+        assertNotNull(matcher.match(byteBuf));
+        assertEquals(byteBuf.capacity(), byteBuf.position());
+    }
+
+    @Test(expected = Exception.class)
+    public void shouldNotMatchWsBeginExtBeyondLimit() throws Exception
+    {
+        BytesMatcher matcher = matchBeginEx().typeId(0x01)
+                                             .build();
+
+        ByteBuffer byteBuf = ByteBuffer.wrap(encodeWsBeginEx());
+        byteBuf.limit(byteBuf.capacity() - 1);
+
+        matcher.match(byteBuf);
+    }
+
+    @Test
+    public void shouldMatchWsBeginExtPathPrefix() throws Exception
+    {
+        BytesMatcher matcher = matchBeginEx().typeId(0x01)
+                                             .authority("localhost:8080")
+                                             .pathPrefix("/path")
+                                             .build();
+
+        assertNotNull(matcher.match(ByteBuffer.wrap(encodeWsBeginEx())));
+    }
+
+    @Test
+    public void shouldMatchWsBeginExtNullProtocol() throws Exception
+    {
+        BytesMatcher matcher = matchBeginEx().typeId(0x01)
+                                             .protocol(null)
+                                             .build();
+
+        ByteBuffer byteBuf = ByteBuffer.wrap(beginEx().typeId(0x01)
+                                                      .protocol(null)
+                                                      .scheme("http")
+                                                      .authority("localhost:8080")
+                                                      .path("/echo")
+                                                      .build());
+
+        assertNotNull(matcher.match(byteBuf));
+    }
+
+    @Test
+    public void shouldMatchWsBeginExtDeflate() throws Exception
+    {
+        BytesMatcher matcher = matchBeginEx().typeId(0x01)
+                                             .extension("permessage-deflate",
+                                                        "server_max_window_bits=9;server_no_context_takeover")
+                                             .build();
+
+        assertNotNull(matcher.match(ByteBuffer.wrap(encodeWsBeginExWithDeflate())));
+    }
+
+    @Test
+    public void shouldMatchWsBeginExtExtensions() throws Exception
+    {
+        BytesMatcher matcher = matchBeginEx().typeId(0x01)
+                                             .extension("x-example", null)
+                                             .extension("permessage-deflate", "server_no_context_takeover")
+                                             .build();
+
+        assertNotNull(matcher.match(ByteBuffer.wrap(encodeWsBeginExWithExtensions())));
+    }
+
+    @Test(expected = Exception.class)
+    public void shouldNotMatchWsBeginExtExtensionName() throws Exception
+    {
+        BytesMatcher matcher = matchBeginEx().typeId(0x01)
+                                             .extension("x-webkit-deflate-frame", null)
+                                             .build();
+
+        matcher.match(ByteBuffer.wrap(encodeWsBeginExWithExtensions()));
+    }
+
+    @Test(expected = Exception.class)
+    public void shouldNotMatchWsBeginExtExtensionParams() throws Exception
+    {
+        BytesMatcher matcher = matchBeginEx().typeId(0x01)
+                                             .extension("permessage-deflate", null)
+                                             .build();
+
+        matcher.match(ByteBuffer.wrap(encodeWsBeginExWithExtensions()));
+    }
+
+    @Test(expected = Exception.class)
+    public void shouldNotMatchWsBeginExtUnknownExtensionParams() throws Exception
+    {
+        BytesMatcher matcher = matchBeginEx().typeId(0x01)
+                                             .extension("x-example", "enabled")
+                                             .build();
+
+        matcher.match(ByteBuffer.wrap(encodeWsBeginExWithExtensions()));
+    }
+
+    @Test
+    public void shouldMatchWsBeginExtOfferedProtocols() throws Exception
+    {
+        BytesMatcher matcher = matchBeginEx().typeId(0x01)
+                                             .offeredProtocol("binary")
+                                             .offeredProtocol("json")
+                                             .build();
+
+        assertNotNull(matcher.match(ByteBuffer.wrap(encodeWsBeginExWithOfferedProtocols())));
+    }
+
+    @Test(expected = Exception.class)
+    public void shouldNotMatchWsBeginExtOfferedProtocolsOrder() throws Exception
+    {
+        BytesMatcher matcher = matchBeginEx().typeId(0x01)
+                                             .offeredProtocol("json")
+                                             .offeredProtocol("binary")
+                                             .build();
+
+        matcher.match(ByteBuffer.wrap(encodeWsBeginExWithOfferedProtocols()));
+    }
+
+    @Test(expected = Exception.class)
+    public void shouldNotMatchWsBeginExtOfferedProtocolsCount() throws Exception
+    {
+        BytesMatcher matcher = matchBeginEx().typeId(0x01)
+                                             .offeredProtocol("binary")
+                                             .build();
+
+        matcher.match(ByteBuffer.wrap(encodeWsBeginExWithOfferedProtocols()));
+    }
+
+    @Test(expected = Exception.class)
+    public void shouldNotMatchWsBeginExtDeflateParams() throws Exception
+    {
+        BytesMatcher matcher = matchBeginEx().typeId(0x01)
+                                             .extension("permessage-deflate", "server_max_window_bits=10")
+                                             .build();
+
+        matcher.match(ByteBuffer.wrap(encodeWsBeginExWithDeflate()));
+    }
+
+    @Test(expected = Exception.class)
+    public void shouldNotMatchWsBeginExtDeflateFlagsNotDerived() throws Exception
+    {
+        BytesMatcher matcher = matchBeginEx().typeId(0x01)
+                                             .extension("permessage-deflate", DEFLATE_PARAMS)
+                                             .build();
+
+        matcher.match(ByteBuffer.wrap(encodeWsBeginExWithDeflateFields(0x00, 9, 15)));
+    }
+
+    @Test(expected = Exception.class)
+    public void shouldNotMatchWsBeginExtServerMaxWindowBitsNotDerived() throws Exception
+    {
+        BytesMatcher matcher = matchBeginEx().typeId(0x01)
+                                             .extension("permessage-deflate", DEFLATE_PARAMS)
+                                             .build();
+
+        matcher.match(ByteBuffer.wrap(encodeWsBeginExWithDeflateFields(0x01, 15, 15)));
+    }
+
+    @Test(expected = Exception.class)
+    public void shouldNotMatchWsBeginExtClientMaxWindowBitsNotDerived() throws Exception
+    {
+        BytesMatcher matcher = matchBeginEx().typeId(0x01)
+                                             .extension("permessage-deflate", DEFLATE_PARAMS)
+                                             .build();
+
+        matcher.match(ByteBuffer.wrap(encodeWsBeginExWithDeflateFields(0x01, 9, 10)));
+    }
+
+    @Test(expected = Exception.class)
+    public void shouldNotMatchWsBeginExtPathPrefix() throws Exception
+    {
+        BytesMatcher matcher = matchBeginEx().typeId(0x01)
+                                             .pathPrefix("/other")
+                                             .build();
+
+        matcher.match(ByteBuffer.wrap(encodeWsBeginEx()));
+    }
+
+    @Test(expected = Exception.class)
+    public void shouldNotMatchWsBeginExtPathPrefixWhenPathNull() throws Exception
+    {
+        BytesMatcher matcher = matchBeginEx().typeId(0x01)
+                                             .pathPrefix("/")
+                                             .build();
+
+        matcher.match(ByteBuffer.wrap(beginEx().typeId(0x01)
+                                               .protocol(null)
+                                               .scheme(null)
+                                               .authority(null)
+                                               .path(null)
+                                               .build()));
+    }
+
+    @Test(expected = Exception.class)
+    public void shouldNotMatchWsBeginExtProtocol() throws Exception
+    {
+        BytesMatcher matcher = matchBeginEx().typeId(0x01)
+                                             .protocol("secondary")
+                                             .build();
+
+        matcher.match(ByteBuffer.wrap(encodeWsBeginEx()));
+    }
+
+    @Test(expected = Exception.class)
+    public void shouldNotMatchWsBeginExtScheme() throws Exception
+    {
+        BytesMatcher matcher = matchBeginEx().typeId(0x01)
+                                             .scheme("https")
+                                             .build();
+
+        matcher.match(ByteBuffer.wrap(encodeWsBeginEx()));
+    }
+
+    @Test(expected = Exception.class)
+    public void shouldNotMatchWsBeginExtAuthority() throws Exception
+    {
+        BytesMatcher matcher = matchBeginEx().typeId(0x01)
+                                             .authority("example.com:443")
+                                             .build();
+
+        matcher.match(ByteBuffer.wrap(encodeWsBeginEx()));
+    }
+
+    @Test(expected = Exception.class)
+    public void shouldNotMatchWsBeginExtPath() throws Exception
+    {
+        BytesMatcher matcher = matchBeginEx().typeId(0x01)
+                                             .path("/path")
+                                             .build();
+
+        matcher.match(ByteBuffer.wrap(encodeWsBeginEx()));
+    }
+
+    @Test(expected = Exception.class)
+    public void shouldNotMatchWsBeginExtTypeId() throws Exception
+    {
+        BytesMatcher matcher = matchBeginEx().typeId(0x02)
+                                             .build();
+
+        matcher.match(ByteBuffer.wrap(encodeWsBeginEx()));
+    }
+
+    @Test(expected = Exception.class)
+    public void shouldNotMatchWsBeginExtTruncated() throws Exception
+    {
+        BytesMatcher matcher = matchBeginEx().typeId(0x01)
+                                             .build();
+
+        matcher.match(ByteBuffer.wrap(new byte[] { 0x01, 0x00, 0x00 }));
+    }
+
+    @Test
+    public void shouldNotMatchWsBeginExtWhenEmpty() throws Exception
+    {
+        BytesMatcher matcher = matchBeginEx().typeId(0x01)
+                                             .build();
+
+        assertNull(matcher.match(ByteBuffer.allocate(0)));
+    }
+
+    @Test
+    public void shouldNotBuildWsBeginExtMatcherWithoutTypeId() throws Exception
+    {
+        BytesMatcher matcher = matchBeginEx().build();
+
+        assertNull(matcher.match(ByteBuffer.wrap(encodeWsBeginEx())));
+    }
+
+    @Test
+    public void shouldEncodeWsDataExt()
+    {
+        final byte[] array = dataEx().typeId(0x01)
+                                     .opcode("text")
+                                     .info(new byte[] { 0x01, 0x02 })
+                                     .build();
+
+        DirectBuffer buffer = new UnsafeBuffer(array);
+        WsDataExFW wsDataEx = new WsDataExFW().wrap(buffer, 0, buffer.capacity());
+
+        assertEquals(0x01, wsDataEx.typeId());
+        assertEquals(0x81, wsDataEx.flags());
+        assertEquals(2, wsDataEx.info().sizeof());
+        assertEquals(array.length, wsDataEx.sizeof());
+    }
+
+    @Test
+    public void shouldEncodeWsDataExtWithDefaultFlags()
+    {
+        final byte[] array = dataEx().typeId(0x01)
+                                     .build();
+
+        DirectBuffer buffer = new UnsafeBuffer(array);
+        WsDataExFW wsDataEx = new WsDataExFW().wrap(buffer, 0, buffer.capacity());
+
+        assertEquals(0x01, wsDataEx.typeId());
+        assertEquals(0x82, wsDataEx.flags());
+        assertEquals(0, wsDataEx.info().sizeof());
+    }
+
+    @Test
+    public void shouldEncodeWsDataExtWithFlags()
+    {
+        assertEquals(0x00, encodeWsDataExFlags(dataEx().typeId(0x01).fin(false).opcode("continuation")));
+        assertEquals(0xc1, encodeWsDataExFlags(dataEx().typeId(0x01).fin(true).rsv(4).opcode("text")));
+        assertEquals(0x88, encodeWsDataExFlags(dataEx().typeId(0x01).opcode("close")));
+        assertEquals(0x89, encodeWsDataExFlags(dataEx().typeId(0x01).opcode("ping")));
+        assertEquals(0x8a, encodeWsDataExFlags(dataEx().typeId(0x01).opcode("pong")));
+        assertEquals(0x42, encodeWsDataExFlags(dataEx().typeId(0x01).flags(0x42)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectWsDataExtUnknownOpcode()
+    {
+        dataEx().opcode("unknown");
+    }
+
+    @Test
+    public void shouldMatchWsDataExtWithinLimit() throws Exception
+    {
+        BytesMatcher matcher = matchDataEx().typeId(0x01)
+                                            .fin(true)
+                                            .opcode("binary")
+                                            .build();
+
+        byte[] dataEx = dataEx().typeId(0x01).build();
+        ByteBuffer byteBuf = ByteBuffer.allocate(256);
+        byteBuf.put(dataEx).flip();
+
+        assertNotNull(matcher.match(byteBuf));
+        assertEquals(dataEx.length, byteBuf.position());
+    }
+
+    @Test
+    public void shouldMatchWsDataExt() throws Exception
+    {
+        BytesMatcher matcher = matchDataEx().typeId(0x01)
+                                            .fin(true)
+                                            .opcode("text")
+                                            .build();
+
+        ByteBuffer byteBuf = ByteBuffer.wrap(dataEx().typeId(0x01)
+                                                     .opcode("text")
+                                                     .info(new byte[] { 0x01 })
+                                                     .build());
+
+        assertNotNull(matcher.match(byteBuf));
+        assertEquals(byteBuf.capacity(), byteBuf.position());
+    }
+
+    @Test
+    public void shouldMatchWsDataExtIgnoringUnspecifiedFlags() throws Exception
+    {
+        BytesMatcher matcher = matchDataEx().typeId(0x01)
+                                            .opcode("binary")
+                                            .build();
+
+        ByteBuffer byteBuf = ByteBuffer.wrap(dataEx().typeId(0x01)
+                                                     .fin(false)
+                                                     .rsv(1)
+                                                     .build());
+
+        assertNotNull(matcher.match(byteBuf));
+    }
+
+    @Test
+    public void shouldMatchWsDataExtFlagsAndRsv() throws Exception
+    {
+        BytesMatcher matcher = matchDataEx().typeId(0x01)
+                                            .flags(0x82)
+                                            .rsv(0)
+                                            .build();
+
+        ByteBuffer byteBuf = ByteBuffer.wrap(dataEx().typeId(0x01)
+                                                     .build());
+
+        assertNotNull(matcher.match(byteBuf));
+    }
+
+    @Test(expected = Exception.class)
+    public void shouldNotMatchWsDataExtFlags() throws Exception
+    {
+        BytesMatcher matcher = matchDataEx().typeId(0x01)
+                                            .fin(false)
+                                            .build();
+
+        matcher.match(ByteBuffer.wrap(dataEx().typeId(0x01)
+                                              .build()));
+    }
+
+    @Test(expected = Exception.class)
+    public void shouldNotMatchWsDataExtTypeId() throws Exception
+    {
+        BytesMatcher matcher = matchDataEx().typeId(0x01)
+                                            .build();
+
+        matcher.match(ByteBuffer.wrap(dataEx().typeId(0x02)
+                                              .build()));
+    }
+
+    @Test(expected = Exception.class)
+    public void shouldNotMatchWsDataExtTruncated() throws Exception
+    {
+        BytesMatcher matcher = matchDataEx().typeId(0x01)
+                                            .build();
+
+        matcher.match(ByteBuffer.wrap(new byte[] { 0x01, 0x00, 0x00 }));
+    }
+
+    @Test
+    public void shouldNotMatchWsDataExtWhenEmpty() throws Exception
+    {
+        BytesMatcher matcher = matchDataEx().typeId(0x01)
+                                            .build();
+
+        assertNull(matcher.match(ByteBuffer.allocate(0)));
+    }
+
+    @Test
+    public void shouldNotBuildWsDataExtMatcherWithoutTypeId() throws Exception
+    {
+        BytesMatcher matcher = matchDataEx().build();
+
+        assertNull(matcher.match(ByteBuffer.wrap(dataEx().typeId(0x01)
+                                                         .build())));
+    }
+
+    @Test
+    public void shouldEncodeWsEndExt()
+    {
+        final byte[] array = endEx().typeId(0x01)
+                                    .code(1001)
+                                    .reason("going away")
+                                    .build();
+
+        DirectBuffer buffer = new UnsafeBuffer(array);
+        WsEndExFW wsEndEx = new WsEndExFW().wrap(buffer, 0, buffer.capacity());
+
+        assertEquals(0x01, wsEndEx.typeId());
+        assertEquals(1001, wsEndEx.code());
+        assertEquals("going away", wsEndEx.reason().asString());
+        assertEquals(array.length, wsEndEx.sizeof());
+    }
+
+    @Test
+    public void shouldEncodeWsEndExtWithNonAsciiReason()
+    {
+        final byte[] array = endEx().typeId(0x01)
+                                    .code(1000)
+                                    .reason("termin\u00e9")
+                                    .build();
+
+        DirectBuffer buffer = new UnsafeBuffer(array);
+        WsEndExFW wsEndEx = new WsEndExFW().wrap(buffer, 0, buffer.capacity());
+
+        assertEquals(1000, wsEndEx.code());
+        assertEquals("termin\u00e9", wsEndEx.reason().asString());
+    }
+
+    @Test
+    public void shouldMatchWsEndExtCodeWithAnyReason() throws Exception
+    {
+        BytesMatcher matcher = matchEndEx().typeId(0x01)
+                                           .code(1001)
+                                           .build();
+
+        ByteBuffer byteBuf = ByteBuffer.wrap(endEx().typeId(0x01)
+                                                    .code(1001)
+                                                    .reason("server restarting")
+                                                    .build());
+
+        assertNotNull(matcher.match(byteBuf));
+        assertEquals(byteBuf.capacity(), byteBuf.position());
+    }
+
+    @Test
+    public void shouldMatchWsEndExtCodeAndReason() throws Exception
+    {
+        BytesMatcher matcher = matchEndEx().typeId(0x01)
+                                           .code(1001)
+                                           .reason("going away")
+                                           .build();
+
+        ByteBuffer byteBuf = ByteBuffer.wrap(endEx().typeId(0x01)
+                                                    .code(1001)
+                                                    .reason("going away")
+                                                    .build());
+
+        assertNotNull(matcher.match(byteBuf));
+    }
+
+    @Test(expected = Exception.class)
+    public void shouldNotMatchWsEndExtCode() throws Exception
+    {
+        BytesMatcher matcher = matchEndEx().typeId(0x01)
+                                           .code(1001)
+                                           .build();
+
+        matcher.match(ByteBuffer.wrap(endEx().typeId(0x01)
+                                             .code(1000)
+                                             .reason(null)
+                                             .build()));
+    }
+
+    @Test(expected = Exception.class)
+    public void shouldNotMatchWsEndExtReason() throws Exception
+    {
+        BytesMatcher matcher = matchEndEx().typeId(0x01)
+                                           .reason("going away")
+                                           .build();
+
+        matcher.match(ByteBuffer.wrap(endEx().typeId(0x01)
+                                             .code(1001)
+                                             .reason("restarting")
+                                             .build()));
+    }
+
+    @Test(expected = Exception.class)
+    public void shouldNotMatchWsEndExtTypeId() throws Exception
+    {
+        BytesMatcher matcher = matchEndEx().typeId(0x01)
+                                           .build();
+
+        matcher.match(ByteBuffer.wrap(endEx().typeId(0x02)
+                                             .code(1001)
+                                             .reason(null)
+                                             .build()));
+    }
+
+    @Test(expected = Exception.class)
+    public void shouldNotMatchWsEndExtTruncated() throws Exception
+    {
+        BytesMatcher matcher = matchEndEx().typeId(0x01)
+                                           .build();
+
+        matcher.match(ByteBuffer.wrap(new byte[] { 0x01, 0x00, 0x00 }));
+    }
+
+    @Test(expected = Exception.class)
+    public void shouldNotMatchWsEndExtBeyondLimit() throws Exception
+    {
+        BytesMatcher matcher = matchEndEx().typeId(0x01)
+                                           .build();
+
+        ByteBuffer byteBuf = ByteBuffer.wrap(endEx().typeId(0x01)
+                                                    .code(1001)
+                                                    .reason("going away")
+                                                    .build());
+        byteBuf.limit(byteBuf.capacity() - 1);
+
+        matcher.match(byteBuf);
+    }
+
+    @Test
+    public void shouldNotMatchWsEndExtWhenEmpty() throws Exception
+    {
+        BytesMatcher matcher = matchEndEx().typeId(0x01)
+                                           .build();
+
+        assertNull(matcher.match(ByteBuffer.allocate(0)));
+    }
+
+    @Test
+    public void shouldNotBuildWsEndExtMatcherWithoutTypeId() throws Exception
+    {
+        BytesMatcher matcher = matchEndEx().build();
+
+        assertNull(matcher.match(ByteBuffer.wrap(endEx().typeId(0x01)
+                                                        .code(1001)
+                                                        .reason(null)
+                                                        .build())));
+    }
+
+    @Test
+    public void shouldEncodeFrameWithDefaults()
+    {
+        assertArrayEquals(new byte[] { (byte) 0x82, 0x00 }, frame().build());
+    }
+
+    @Test
+    public void shouldEncodeFrameWithOpcodeFinAndRsv()
+    {
+        byte[] frame = frame().opcode("text")
+                              .fin(false)
+                              .rsv(4)
+                              .payload("Hel".getBytes(US_ASCII))
+                              .build();
+
+        assertArrayEquals(new byte[] { 0x41, 0x03, 0x48, 0x65, 0x6c }, frame);
+        assertArrayEquals(new byte[] { (byte) 0x80, 0x00 }, frame().opcode("continuation").fin(true).build());
+    }
+
+    @Test
+    public void shouldEncodeMaskedFrame()
+    {
+        byte[] frame = frame().opcode("text")
+                              .mask(new byte[] { 0x37, (byte) 0xfa, 0x21, 0x3d })
+                              .payload("Hello".getBytes(US_ASCII))
+                              .build();
+
+        assertArrayEquals(new byte[] { (byte) 0x81, (byte) 0x85, 0x37, (byte) 0xfa, 0x21, 0x3d,
+                                       0x7f, (byte) 0x9f, 0x4d, 0x51, 0x58 }, frame);
+    }
+
+    @Test
+    public void shouldEncodeFrameWith7BitLength()
+    {
+        byte[] frame = frame().payload(new byte[125]).build();
+
+        assertEquals(2 + 125, frame.length);
+        assertEquals(0x7d, frame[1]);
+    }
+
+    @Test
+    public void shouldEncodeFrameWith16BitLength()
+    {
+        byte[] frame = frame().payload(new byte[126]).build();
+
+        assertEquals(4 + 126, frame.length);
+        assertEquals(0x7e, frame[1]);
+        assertEquals(126, ByteBuffer.wrap(frame, 2, 2).getShort());
+
+        byte[] maxFrame = frame().mask(new byte[4]).payload(new byte[65535]).build();
+
+        assertEquals(8 + 65535, maxFrame.length);
+        assertEquals((byte) 0xfe, maxFrame[1]);
+        assertEquals(65535, ByteBuffer.wrap(maxFrame, 2, 2).getShort() & 0xffff);
+    }
+
+    @Test
+    public void shouldEncodeFrameWith64BitLength()
+    {
+        byte[] frame = frame().payload(new byte[65536]).build();
+
+        assertEquals(10 + 65536, frame.length);
+        assertEquals(0x7f, frame[1]);
+        assertEquals(65536L, ByteBuffer.wrap(frame, 2, 8).getLong());
+    }
+
+    @Test
+    public void shouldEncodeFrameHeaderWithDeclaredLength()
+    {
+        byte[] frame = frame().mask(new byte[] { 0x01, 0x02, 0x03, 0x04 })
+                              .length(0x7fffffffL)
+                              .build();
+
+        assertArrayEquals(new byte[] { (byte) 0x82, (byte) 0xff, 0x00, 0x00, 0x00, 0x00, 0x7f, (byte) 0xff, (byte) 0xff,
+                                       (byte) 0xff, 0x01, 0x02, 0x03, 0x04 }, frame);
+    }
+
+    @Test
+    public void shouldEncodeFrameWithNullPayloadAndMask()
+    {
+        byte[] frame = frame().mask(new byte[] { 0x01, 0x02, 0x03, 0x04 })
+                              .mask(null)
+                              .payload(null)
+                              .build();
+
+        assertArrayEquals(new byte[] { (byte) 0x82, 0x00 }, frame);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectFrameInvalidMaskingKey()
+    {
+        frame().mask(new byte[3]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectFrameNegativeLength()
+    {
+        frame().length(-1L);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectFrameLengthLessThanPayloadLength()
+    {
+        frame().payload(new byte[8])
+               .length(7L)
+               .build();
+    }
+
+    @Test
+    public void shouldReleaseFrameBufferAfterLargeFrame()
+    {
+        frame().payload(new byte[16 * 1024 * 1024]).build();
+
+        WsFunctions.WsFrameHelper frame = frame();
+        assertEquals(8192, frame.capacity());
+        assertArrayEquals(new byte[] { (byte) 0x82, 0x01, 0x00 }, frame.payload(new byte[1]).build());
+    }
+
+    @Test
+    public void shouldMaskPayload()
+    {
+        byte[] maskingKey = new byte[] { 0x37, (byte) 0xfa, 0x21, 0x3d };
+
+        assertArrayEquals(new byte[] { 0x7f, (byte) 0x9f, 0x4d, 0x51, 0x58 }, mask("Hello".getBytes(US_ASCII), maskingKey));
+    }
+
+    @Test
+    public void shouldMaskCloseCode()
+    {
+        byte[] maskingKey = new byte[] { 0x01, 0x02, 0x03, 0x04 };
+        byte[] closeCode = new byte[] { 0x03, (byte) 0xea };
+
+        byte[] masked = mask(closeCode, maskingKey);
+
+        assertArrayEquals(new byte[] { 0x02, (byte) 0xe8 }, masked);
+        assertArrayEquals(new byte[] { 0x03, (byte) 0xea }, closeCode);
+        assertArrayEquals(closeCode, mask(masked, maskingKey));
+    }
+
+    @Test
+    public void shouldMaskPayloadSameAsBytewise()
+    {
+        Random random = new Random(6455L);
+        byte[] maskingKey = new byte[4];
+
+        for (int length = 0; length <= 131; length++)
+        {
+            byte[] payload = new byte[length];
+            random.nextBytes(payload);
+            random.nextBytes(maskingKey);
+
+            byte[] expected = new byte[length];
+            for (int index = 0; index < length; index++)
+            {
+                expected[index] = (byte) (payload[index] ^ maskingKey[index & 0x03]);
+            }
+
+            assertArrayEquals(expected, mask(payload, maskingKey));
+            assertArrayEquals(expected, Arrays.copyOfRange(frame().mask(maskingKey).payload(payload).build(),
+                                                           length <= 125 ? 6 : 8, (length <= 125 ? 6 : 8) + length));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectMaskInvalidMaskingKey()
+    {
+        mask(new byte[8], new byte[5]);
+    }
+
+    @Test
+    public void shouldGenerateDeterministicPayload()
+    {
+        byte[] payload = payload(42L, 65535);
+
+        assertEquals(65535, payload.length);
+        assertArrayEquals(payload, payload(42L, 65535));
+        assertFalse(Arrays.equals(payload, payload(43L, 65535)));
+        assertEquals(0, payload(42L, 0).length);
+    }
+
+    @Test
+    public void shouldGeneratePayloadSlices()
+    {
+        byte[] payload = payload(42L, 1000);
+
+        int offset = 0;
+        for (int length : new int[] { 3, 5, 8, 1, 0, 15, 16, 200, 752 })
+        {
+            assertArrayEquals(Arrays.copyOfRange(payload, offset, offset + length), payloadSlice(42L, offset, length));
+            offset += length;
+        }
+        assertEquals(payload.length, offset);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectPayloadNegativeLength()
+    {
+        payload(42L, -1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectPayloadSliceNegativeOffset()
+    {
+        payloadSlice(42L, -1L, 8);
+    }
+
+    @Test
+    public void shouldMatchFrame() throws Exception
+    {
+        BytesMatcher matcher = matchFrame().fin(true)
+                                           .rsv(4)
+                                           .opcode("text")
+                                           .masked(true)
+                                           .payload("Hello".getBytes(US_ASCII))
+                                           .build();
+
+        ByteBuffer byteBuf = ByteBuffer.wrap(frame().opcode("text")
+                                                    .rsv(4)
+                                                    .mask(new byte[] { 0x37, (byte) 0xfa, 0x21, 0x3d })
+                                                    .payload("Hello".getBytes(US_ASCII))
+                                                    .build());
+
+        assertArrayEquals("Hello".getBytes(US_ASCII), (byte[]) matcher.match(byteBuf));
+        assertEquals(byteBuf.capacity(), byteBuf.position());
+    }
+
+    @Test
+    public void shouldMatchNonFinalFrame() throws Exception
+    {
+        BytesMatcher matcher = matchFrame().fin(false)
+                                           .opcode("continuation")
+                                           .build();
+
+        ByteBuffer byteBuf = ByteBuffer.wrap(frame().fin(false)
+                                                    .opcode("continuation")
+                                                    .payload("Hello".getBytes(US_ASCII))
+                                                    .build());
+
+        assertArrayEquals("Hello".getBytes(US_ASCII), (byte[]) matcher.match(byteBuf));
+    }
+
+    @Test
+    public void shouldMatchFrameWithExtendedLengths() throws Exception
+    {
+        BytesMatcher matcher = matchFrame().masked(false).build();
+
+        for (int length : new int[] { 125, 126, 65535, 65536 })
+        {
+            ByteBuffer byteBuf = ByteBuffer.wrap(frame().payload(new byte[length]).build());
+
+            assertEquals(length, ((byte[]) matcher.match(byteBuf)).length);
+            assertEquals(byteBuf.capacity(), byteBuf.position());
+        }
+    }
+
+    @Test
+    public void shouldNotMatchFrameWhenIncomplete() throws Exception
+    {
+        BytesMatcher matcher = matchFrame().build();
+        byte[] frame = frame().mask(new byte[4]).payload(new byte[126]).build();
+
+        assertNull(matcher.match(ByteBuffer.wrap(frame, 0, 1)));
+        assertNull(matcher.match(ByteBuffer.wrap(frame, 0, 7)));
+        assertNull(matcher.match(ByteBuffer.wrap(frame, 0, frame.length - 1)));
+        assertNotNull(matcher.match(ByteBuffer.wrap(frame)));
+    }
+
+    @Test(expected = Exception.class)
+    public void shouldNotMatchFrameWithNegativeLength() throws Exception
+    {
+        BytesMatcher matcher = matchFrame().build();
+
+        matcher.match(ByteBuffer.wrap(new byte[] { (byte) 0x82, 0x7f, (byte) 0x80, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00 }));
+    }
+
+    @Test(expected = Exception.class)
+    public void shouldNotMatchFrameWithLengthBeyondIntegerRange() throws Exception
+    {
+        BytesMatcher matcher = matchFrame().build();
+
+        matcher.match(ByteBuffer.wrap(new byte[] { (byte) 0x82, 0x7f, 0x00, 0x00, 0x00, 0x01, 0x00, 0x00, 0x00, 0x00 }));
+    }
+
+    @Test(expected = Exception.class)
+    public void shouldNotMatchFrameFlags() throws Exception
+    {
+        BytesMatcher matcher = matchFrame().opcode("text").build();
+
+        matcher.match(ByteBuffer.wrap(frame().opcode("binary").build()));
+    }
+
+    @Test(expected = Exception.class)
+    public void shouldNotMatchFrameMasked() throws Exception
+    {
+        BytesMatcher matcher = matchFrame().masked(true).build();
+
+        matcher.match(ByteBuffer.wrap(frame().build()));
+    }
+
+    @Test(expected = Exception.class)
+    public void shouldNotMatchFramePayload() throws Exception
+    {
+        BytesMatcher matcher = matchFrame().payload(new byte[] { 0x01 }).build();
+
+        matcher.match(ByteBuffer.wrap(frame().payload(new byte[] { 0x02 }).build()));
+    }
+
+    @Test
+    public void shouldDeflatePayload()
+    {
+        assertArrayEquals(new byte[] { (byte) 0xf2, 0x48, (byte) 0xcd, (byte) 0xc9, (byte) 0xc9, 0x07, 0x00 },
+                deflate("Hello".getBytes(US_ASCII)));
+        assertArrayEquals(new byte[] { (byte) 0xf2, 0x48, (byte) 0xcd, (byte) 0xc9, (byte) 0xc9, 0x07, 0x00 },
+                deflate("Hello".getBytes(US_ASCII)));
+        assertArrayEquals(new byte[] { 0x00 }, deflate(new byte[0]));
+    }
+
+    @Test
+    public void shouldDeflatePayloadWithContextTakeover()
+    {
+        WsFunctions.WsDeflaterHelper deflater = deflater();
+
+        assertArrayEquals(new byte[] { (byte) 0xf2, 0x48, (byte) 0xcd, (byte) 0xc9, (byte) 0xc9, 0x07, 0x00 },
+                deflater.deflate(0, "Hello".getBytes(US_ASCII)));
+        assertArrayEquals(new byte[] { (byte) 0xf2, 0x00, 0x11, 0x00, 0x00 },
+                deflater.deflate(1, "Hello".getBytes(US_ASCII)));
+        assertArrayEquals(new byte[] { (byte) 0xf2, 0x48, (byte) 0xcd, (byte) 0xc9, (byte) 0xc9, 0x07, 0x00 },
+                deflater.deflate(0, "Hello".getBytes(US_ASCII)));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldRejectDeflateMessageOutOfSequence()
+    {
+        deflater().deflate(1, "Hello".getBytes(US_ASCII));
+    }
+
+    @Test
+    public void shouldDeflateLargePayload() throws Exception
+    {
+        byte[] payload = payload(42L, 65536);
+        byte[] deflated = deflate(payload);
+
+        Inflater inflater = new Inflater(true);
+        inflater.setInput(deflated);
+        byte[] inflated = new byte[payload.length];
+
+        assertEquals(payload.length, inflater.inflate(inflated));
+        assertArrayEquals(payload, inflated);
+    }
+
+    @Test
+    public void shouldMatchInflatedFrame() throws Exception
+    {
+        BytesMatcher matcher = matchFrame().fin(true)
+                                           .rsv(4)
+                                           .opcode("text")
+                                           .masked(true)
+                                           .inflate(inflater())
+                                           .payload("Hello".getBytes(US_ASCII))
+                                           .build();
+
+        ByteBuffer byteBuf = ByteBuffer.wrap(frame().opcode("text")
+                                                    .rsv(4)
+                                                    .mask(new byte[] { 0x37, (byte) 0xfa, 0x21, 0x3d })
+                                                    .payload(deflate("Hello".getBytes(US_ASCII)))
+                                                    .build());
+
+        assertNotNull(matcher.match(byteBuf));
+        assertEquals(byteBuf.capacity(), byteBuf.position());
+    }
+
+    @Test
+    public void shouldMatchInflatedFramesWithContextTakeover() throws Exception
+    {
+        WsFunctions.WsInflaterHelper inflater = inflater();
+        BytesMatcher matcher = matchFrame().inflate(inflater)
+                                           .payload("Hello".getBytes(US_ASCII))
+                                           .build();
+
+        assertNotNull(matcher.match(ByteBuffer.wrap(frame().rsv(4).payload(new byte[] {
+            (byte) 0xf2, 0x48, (byte) 0xcd, (byte) 0xc9, (byte) 0xc9, 0x07, 0x00 }).build())));
+        assertNotNull(matcher.match(ByteBuffer.wrap(frame().rsv(4).payload(new byte[] {
+            (byte) 0xf2, 0x00, 0x11, 0x00, 0x00 }).build())));
+    }
+
+    @Test
+    public void shouldMatchInflatedFragments() throws Exception
+    {
+        WsFunctions.WsInflaterHelper inflater = inflater();
+        BytesMatcher first = matchFrame().fin(false)
+                                         .inflate(inflater)
+                                         .payload("Hello".getBytes(US_ASCII))
+                                         .build();
+        BytesMatcher last = matchFrame().fin(true)
+                                        .inflate(inflater)
+                                        .payload("Hello".getBytes(US_ASCII))
+                                        .build();
+
+        assertNotNull(first.match(ByteBuffer.wrap(frame().fin(false).rsv(4).opcode("text").payload(new byte[] {
+            (byte) 0xf2, 0x48, (byte) 0xcd }).build())));
+        assertNotNull(last.match(ByteBuffer.wrap(frame().opcode("continuation").payload(new byte[] {
+            (byte) 0xc9, (byte) 0xc9, 0x07, 0x00 }).build())));
+    }
+
+    @Test
+    public void shouldMatchInflatedLargePayload() throws Exception
+    {
+        byte[] payload = repeat(payloadSlice(7692L, 0L, 64), 1024);
+        byte[] deflated = deflate(payload(7692L, 16384));
+
+        BytesMatcher matcher = matchFrame().inflate(inflater())
+                                           .payload(payload)
+                                           .build();
+        BytesMatcher random = matchFrame().inflate(inflater())
+                                          .payload(payload(7692L, 16384))
+                                          .build();
+
+        assertNotNull(matcher.match(ByteBuffer.wrap(frame().rsv(4).payload(deflate(payload)).build())));
+        assertNotNull(random.match(ByteBuffer.wrap(frame().rsv(4).payload(deflated).build())));
+    }
+
+    @Test(expected = Exception.class)
+    public void shouldNotMatchInflatedFramePayload() throws Exception
+    {
+        BytesMatcher matcher = matchFrame().inflate(inflater())
+                                           .payload("Hellp".getBytes(US_ASCII))
+                                           .build();
+
+        matcher.match(ByteBuffer.wrap(frame().rsv(4).payload(deflate("Hello".getBytes(US_ASCII))).build()));
+    }
+
+    @Test(expected = Exception.class)
+    public void shouldNotMatchInflatedFrameFlags() throws Exception
+    {
+        WsFunctions.WsInflaterHelper inflater = inflater();
+        BytesMatcher matcher = matchFrame().opcode("text")
+                                           .inflate(inflater)
+                                           .build();
+
+        matcher.match(ByteBuffer.wrap(frame().opcode("binary").rsv(4).payload(deflate(new byte[0])).build()));
+    }
+
+    @Test
+    public void shouldRepeatBytes()
+    {
+        assertArrayEquals(new byte[] { 0x01, 0x02, 0x01, 0x02, 0x01, 0x02 }, repeat(new byte[] { 0x01, 0x02 }, 3));
+        assertArrayEquals(new byte[0], repeat(new byte[] { 0x01, 0x02 }, 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNegativeRepeatCount()
+    {
+        repeat(new byte[] { 0x01 }, -1);
+    }
+
+    private static int encodeWsDataExFlags(
+        WsFunctions.WsDataExHelper helper)
+    {
+        DirectBuffer buffer = new UnsafeBuffer(helper.build());
+        return new WsDataExFW().wrap(buffer, 0, buffer.capacity()).flags();
+    }
 }